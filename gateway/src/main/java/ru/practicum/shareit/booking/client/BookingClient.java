@@ -4,13 +4,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -30,24 +35,52 @@ public class BookingClient extends BaseClient {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(long userId, String state, int from, int size) {
+    public ResponseEntity<Object> getAllBookingsByUserId(long userId, String state, int from, int size,
+                                                         @Nullable String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
+
         Map<String, Object> parameters = Map.of("state", state, "from", from,  "size", size);
 
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwnerId(long userId, String state, int from, int size) {
+    public ResponseEntity<Object> getAllBookingsByOwnerId(long userId, String state, int from, int size,
+                                                          @Nullable String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
+
         Map<String, Object> parameters = Map.of("state", state, "from", from,  "size", size);
 
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<StreamingResponseBody> exportBookingsByUserId(long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwnerId(long userId) {
+        return stream("/owner/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
     public ResponseEntity<Object> createNewBooking(long userId, BookingCreateDto bookingCreateDto) {
         log.debug("+ createNewBooking: {}, {}", userId, bookingCreateDto);
 
         return post("", userId, bookingCreateDto);
     }
 
+    public ResponseEntity<Object> createNewBookings(long userId, List<BookingCreateDto> bookingCreateDtos) {
+        log.debug("+ createNewBookings: {}, {}", userId, bookingCreateDtos);
+
+        return post("/batch", userId, bookingCreateDtos);
+    }
+
     public ResponseEntity<Object> updateBookingStatus(long userId, long id, boolean approved) {
         log.debug("+ updateBookingStatus: {}, {}, {}", userId, id, approved);
 
@@ -55,4 +88,10 @@ public class BookingClient extends BaseClient {
 
         return patch("/" + id + "?approved={approved}", userId, parameters);
     }
+
+    public ResponseEntity<Object> updateBookingStatuses(long userId, List<BookingStatusUpdateDto> updates) {
+        log.debug("+ updateBookingStatuses: {}, {}", userId, updates);
+
+        return patch("/batch", userId, updates);
+    }
 }
@@ -13,14 +13,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.service.BookingValidationService;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Validated
 @RestController
@@ -39,20 +44,32 @@ public class BookingController {
     public ResponseEntity<Object> findAllForUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                    @RequestParam(defaultValue = "0") @Min(0) int from,
                                                    @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
-                                                   @RequestParam(defaultValue = "ALL") String state) {
+                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestParam(required = false) String cursor) {
         BookingValidationService.validateState(state);
 
-        return bookingClient.getAllBookingsByUserId(userId, state, from, size);
+        return bookingClient.getAllBookingsByUserId(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findAllForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                     @RequestParam(defaultValue = "0") @Min(0) int from,
                                                     @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
-                                                    @RequestParam(defaultValue = "ALL") String state) {
+                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                    @RequestParam(required = false) String cursor) {
         BookingValidationService.validateState(state);
 
-        return bookingClient.getAllBookingsByOwnerId(userId, state, from, size);
+        return bookingClient.getAllBookingsByOwnerId(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportForUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.exportBookingsByUserId(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.exportBookingsByOwnerId(userId);
     }
 
     @PostMapping
@@ -65,6 +82,19 @@ public class BookingController {
         return bookingClient.createNewBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody @NotEmpty @Size(max = 500)
+                                            List<@Valid BookingCreateDto> bookingDtos) {
+        log.debug("Received POST-request /bookings/batch with header X-Sharer-User-Id={} and body: {}", userId,
+                bookingDtos);
+
+        bookingDtos.forEach(bookingDto -> BookingValidationService.validateBookingPeriod(bookingDto.getStart(),
+                bookingDto.getEnd()));
+
+        return bookingClient.createNewBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateStatus(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @PathVariable long id,
@@ -74,4 +104,14 @@ public class BookingController {
 
         return bookingClient.updateBookingStatus(userId, id, approved);
     }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                 List<@Valid BookingStatusUpdateDto> updates) {
+        log.debug("Received PATCH-request /bookings/batch with header X-Sharer-User-Id={} and body: {}", userId,
+                updates);
+
+        return bookingClient.updateBookingStatuses(userId, updates);
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Builder
+@Data
+public class BookingStatusUpdateDto {
+    @NotNull
+    private Long id;
+    @NotNull
+    private Boolean approved;
+}
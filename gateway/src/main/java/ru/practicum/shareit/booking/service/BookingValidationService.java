@@ -14,7 +14,8 @@ public class BookingValidationService {
             "PAST",
             "FUTURE",
             "WAITING",
-            "REJECTED");
+            "REJECTED",
+            "EXPIRED");
 
     public static void validateBookingPeriod(LocalDateTime start, LocalDateTime end) {
         if (!end.isAfter(start)) {
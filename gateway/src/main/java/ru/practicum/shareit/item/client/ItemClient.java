@@ -12,6 +12,9 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -31,16 +34,47 @@ public class ItemClient extends BaseClient {
         return get("/" + id, userId);
     }
 
+    public ResponseEntity<Object> getItemComments(long userId, long id, int from, int size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+
+        return get("/" + id + "/comments?from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(long userId, long id, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+
+        return get("/" + id + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemStats(long userId, String bucket, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of("bucket", bucket, "from", from, "to", to);
+
+        return get("/stats?bucket={bucket}&from={from}&to={to}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getAllItems(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of("from", from,  "size", size);
 
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text, int from, int size) {
-        Map<String, Object> parameters = Map.of("text", text, "from", from,  "size", size);
+    public ResponseEntity<Object> searchItems(long userId, String text, String sort, boolean fuzzy, int from,
+                                              int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "fuzzy", fuzzy, "from", from,
+                "size", size));
+        String path = "/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}";
+        if (sort != null) {
+            parameters.put("sort", sort);
+            path += "&sort={sort}";
+        }
+
+        return get(path, userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(long userId, String prefix, int size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> createNewItem(long userId, ItemCreateUpdateDto itemCreateUpdateDto) {
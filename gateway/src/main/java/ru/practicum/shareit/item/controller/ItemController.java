@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
@@ -21,6 +23,11 @@ import ru.practicum.shareit.user.dto.Marker;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
 
 @Validated
 @RestController
@@ -28,6 +35,12 @@ import javax.validation.constraints.Min;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+    private static final Set<String> STATS_BUCKETS = Set.of("DAY", "WEEK");
+    private static final int DEFAULT_STATS_DAYS = 30;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final String RELEVANCE_SORT = "relevance";
+
     private final ItemClient itemClient;
 
     @GetMapping("/{id}")
@@ -35,6 +48,57 @@ public class ItemController {
         return itemClient.getItem(userId, id);
     }
 
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<Object> findComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable long id,
+                                               @RequestParam(defaultValue = "0") @Min(0) int from,
+                                               @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return itemClient.getItemComments(userId, id, from, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> findAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long id,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new RequestValidationException(String.format("End of period %s can`t be earlier than start %s", to,
+                    from));
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new RequestValidationException(String.format("Period from %s to %s is longer than %s days", from,
+                    to, MAX_AVAILABILITY_PERIOD.toDays()));
+        }
+
+        return itemClient.getItemAvailability(userId, id, from, to);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Object> findStats(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestParam(defaultValue = "DAY") String bucket,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                            LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                            LocalDate to) {
+        if (!STATS_BUCKETS.contains(bucket)) {
+            throw new RequestValidationException(String.format("Unknown bucket: %s", bucket));
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_STATS_DAYS - 1) : from;
+        if (end.isBefore(start)) {
+            throw new RequestValidationException(String.format("End of period %s can`t be earlier than start %s", end,
+                    start));
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_STATS_DAYS) {
+            throw new RequestValidationException(String.format("Period from %s to %s is longer than %s days", start,
+                    end, MAX_STATS_DAYS));
+        }
+
+        return itemClient.getItemStats(userId, bucket, start, end);
+    }
+
     @GetMapping
     public ResponseEntity<Object> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(defaultValue = "0") @Min(0) int from,
@@ -46,8 +110,21 @@ public class ItemController {
     public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") long userId,
                                         @RequestParam(defaultValue = "0") @Min(0) int from,
                                         @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
-                                        @RequestParam String text) {
-        return itemClient.searchItems(userId, text, from, size);
+                                        @RequestParam String text,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(defaultValue = "false") boolean fuzzy) {
+        if (sort != null && !RELEVANCE_SORT.equals(sort)) {
+            throw new RequestValidationException(String.format("Unknown sort: %s", sort));
+        }
+
+        return itemClient.searchItems(userId, text, sort, fuzzy, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Min(1) @Max(20) int size) {
+        return itemClient.suggestItemNames(userId, prefix, size);
     }
 
     @PostMapping
@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,9 +13,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCreateResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
 
 import java.util.List;
 
@@ -22,7 +30,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @GetMapping("/{id}")
     public BookingResponseDto find(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long id) {
@@ -30,19 +41,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> findAllForUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "20") int size,
-                                                   @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByUserId(userId, state, from, size);
+    public ResponseEntity<List<BookingResponseDto>> findAllForUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                   @RequestParam(defaultValue = "0") int from,
+                                                                   @RequestParam(defaultValue = "20") int size,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllBookingsByUserId(userId, state, from, size));
+        }
+
+        return toResponse(bookingService.findBookingsPageByUserId(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> findAllForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                    @RequestParam(defaultValue = "0") int from,
-                                                    @RequestParam(defaultValue = "20") int size,
-                                                    @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByOwnerId(userId, state, from, size);
+    public ResponseEntity<List<BookingResponseDto>> findAllForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                    @RequestParam(defaultValue = "0") int from,
+                                                                    @RequestParam(defaultValue = "20") int size,
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllBookingsByOwnerId(userId, state, from, size));
+        }
+
+        return toResponse(bookingService.findBookingsPageByOwnerId(userId, state, cursor, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportForUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportBookingsOfBooker(userId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportBookingsOfOwner(userId));
     }
 
     @PostMapping
@@ -53,6 +88,15 @@ public class BookingController {
         return bookingService.createNewBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingCreateResultDto> createAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @RequestBody List<BookingCreateDto> bookingDtos) {
+        log.debug("Received POST-request /bookings/batch with header X-Sharer-User-Id={} and body: {}", userId,
+                bookingDtos);
+
+        return bookingService.createNewBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{id}")
     public BookingResponseDto updateStatus(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @PathVariable long id,
@@ -62,4 +106,22 @@ public class BookingController {
 
         return bookingService.updateBookingStatus(userId, id, approved);
     }
+
+    @PatchMapping("/batch")
+    public List<BookingStatusUpdateResultDto> updateStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @RequestBody List<BookingStatusUpdateDto> updates) {
+        log.debug("Received PATCH-request /bookings/batch with header X-Sharer-User-Id={} and body: {}", userId,
+                updates);
+
+        return bookingService.updateBookingStatuses(userId, updates);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+
+        return response.body(page.getBookings());
+    }
 }
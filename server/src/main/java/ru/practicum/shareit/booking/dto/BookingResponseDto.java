@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.entity.BookingStatus;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Builder
 @Data
+@AllArgsConstructor
 public class BookingResponseDto {
     private long id;
     private LocalDateTime start;
@@ -17,4 +19,13 @@ public class BookingResponseDto {
     private BookingStatus status;
     private UserBookingDto booker;
     private ItemBookingDto item;
+
+    /**
+     * Constructor of JPQL constructor expressions, so booking lists are read without loading entities.
+     */
+    public BookingResponseDto(long id, LocalDateTime start, LocalDateTime end, BookingStatus status, long bookerId,
+                              long itemId, String itemName) {
+        this(id, start, end, status, UserBookingDto.builder().id(bookerId).build(),
+                ItemBookingDto.builder().id(itemId).name(itemName).build());
+    }
 }
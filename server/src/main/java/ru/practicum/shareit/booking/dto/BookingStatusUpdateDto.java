@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class BookingStatusUpdateDto {
+    private long id;
+    private boolean approved;
+}
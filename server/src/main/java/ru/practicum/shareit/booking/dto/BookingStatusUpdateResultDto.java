@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class BookingStatusUpdateResultDto {
+    private long id;
+    private BookingResponseDto booking;
+    private String error;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.mapstruct.Mapper;
+import ru.practicum.shareit.booking.entity.ArchivedBooking;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
@@ -9,4 +10,6 @@ import static org.mapstruct.MappingConstants.ComponentModel.SPRING;
 @Mapper(componentModel = SPRING)
 public interface BookingMapper {
     BookingResponseDto bookingToBookingForResponseDto(Booking booking);
+
+    Booking archivedBookingToBooking(ArchivedBooking archivedBooking);
 }
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.entity.ArchivedBooking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "ArchivedBooking.item")
+    Optional<ArchivedBooking> findById(long id);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE booker_id = ?1" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE booker_id = ?1) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedBookingsOfBooker(long bookerId, Pageable pageable);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE booker_id = ?1 AND end_date < ?2" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE booker_id = ?1) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedPastBookingsOfBooker(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE booker_id = ?1 AND status = ?2" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE booker_id = ?1 AND status = ?2) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedBookingsOfBookerByStatus(long bookerId, String status, Pageable pageable);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1)" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1)) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedBookingsOfOwner(long ownerId, Pageable pageable);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1) AND end_date < ?2" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1)) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedPastBookingsOfOwner(long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id AS item_id, i.name" +
+            " FROM (SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1) AND status = ?2" +
+            " UNION ALL" +
+            " SELECT id, start_date, end_date, status, booker_id, item_id FROM bookings_archive" +
+            " WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?1) AND status = ?2) AS b" +
+            " JOIN items AS i ON i.id = b.item_id" +
+            " ORDER BY b.start_date DESC, b.id DESC", nativeQuery = true)
+    List<Object[]> findLiveAndArchivedBookingsOfOwnerByStatus(long ownerId, String status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from ArchivedBooking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllBookingsOfBookerAfter(long bookerId, LocalDateTime start, long id,
+                                                          Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from ArchivedBooking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.status = ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfBookerByStatusAfter(long bookerId, LocalDateTime start, long id,
+                                                               BookingStatus status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from ArchivedBooking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllBookingsOfOwnerAfter(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from ArchivedBooking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.status = ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfOwnerByStatusAfter(long ownerId, LocalDateTime start, long id,
+                                                              BookingStatus status, Pageable pageable);
+
+    @Query(value = "SELECT item_id AS \"itemId\", id AS \"id\", booker_id AS \"bookerId\", TRUE AS \"past\"" +
+            " FROM (SELECT b.item_id, b.id, b.booker_id," +
+            " ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS position" +
+            " FROM bookings_archive AS b" +
+            " WHERE b.item_id IN (?1)" +
+            " AND b.status = 'APPROVED') AS ranked" +
+            " WHERE position = 1", nativeQuery = true)
+    List<ItemBookingView> findLastBookingsOfItems(Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status)" +
+            " SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings" +
+            " WHERE id IN (?1)", nativeQuery = true)
+    int copyBookings(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from ArchivedBooking as b" +
+            " join fetch b.item" +
+            " where b.booker.id = ?1" +
+            " order by b.start desc, b.id desc")
+    Stream<ArchivedBooking> streamAllBookingsOfBooker(long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from ArchivedBooking as b" +
+            " join fetch b.item as i" +
+            " where i.owner.id = ?1" +
+            " order by b.start desc, b.id desc")
+    Stream<ArchivedBooking> streamAllBookingsOfOwner(long ownerId);
+}
@@ -1,13 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.entity.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "Booking.item")
@@ -19,30 +33,311 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "Booking.item")
     List<Booking> findAllByItemOwnerIdOrderByStartDesc(long id);
 
-    @Query("select new ru.practicum.shareit.booking.dto.BookingItemDto(b.id, br.id) from Booking as b" +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
             " join b.item as i" +
-            " join b.booker as br" +
-            " where i.id = ?1" +
-            " and b.status = 'APPROVED'" +
-            " and b.start < current_timestamp" +
-            " order by b.end desc")
-    List<BookingItemDto> findPastBookingsOfItem(long id);
+            " where b.booker.id = ?1" +
+            " and b.start < ?2" +
+            " and b.end > ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findCurrentBookingsOfBooker(long bookerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select new ru.practicum.shareit.booking.dto.BookingItemDto(b.id, br.id) from Booking as b" +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
             " join b.item as i" +
-            " join b.booker as br" +
-            " where i.id = ?1" +
-            " and b.status = 'APPROVED'" +
-            " and b.start > current_timestamp" +
-            " order by b.end")
-    List<BookingItemDto> findFutureBookingsOfItem(long id);
+            " where b.booker.id = ?1" +
+            " and b.start > ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findFutureBookingsOfBooker(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.status = ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfBookerByStatus(long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start < ?2" +
+            " and b.end > ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findCurrentBookingsOfOwner(long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start > ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findFutureBookingsOfOwner(long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.status = ?2" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfOwnerByStatus(long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllBookingsOfBookerAfter(long bookerId, LocalDateTime start, long id,
+                                                          Pageable pageable);
 
-    @Query("select count(b) from Booking as b" +
-            " join b.booker as br" +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
             " join b.item as i" +
-            " where br.id = ?1" +
-            " and i.id = ?2" +
-            " and b.status = 'APPROVED'" +
-            " and b.end < current_timestamp")
-    int findCountBookingsOfUser(long userId, long itemId);
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.start < ?4" +
+            " and b.end > ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findCurrentBookingsOfBookerAfter(long bookerId, LocalDateTime start, long id,
+                                                              LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.end < ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findPastBookingsOfBookerAfter(long bookerId, LocalDateTime start, long id,
+                                                           LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.start > ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findFutureBookingsOfBookerAfter(long bookerId, LocalDateTime start, long id,
+                                                             LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where b.booker.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.status = ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfBookerByStatusAfter(long bookerId, LocalDateTime start, long id,
+                                                               BookingStatus status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllBookingsOfOwnerAfter(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.start < ?4" +
+            " and b.end > ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findCurrentBookingsOfOwnerAfter(long ownerId, LocalDateTime start, long id,
+                                                             LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.end < ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findPastBookingsOfOwnerAfter(long ownerId, LocalDateTime start, long id, LocalDateTime now,
+                                                          Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.start > ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findFutureBookingsOfOwnerAfter(long ownerId, LocalDateTime start, long id,
+                                                            LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status," +
+            " b.booker.id, i.id, i.name)" +
+            " from Booking as b" +
+            " join b.item as i" +
+            " where i.owner.id = ?1" +
+            " and b.start <= ?2" +
+            " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))" +
+            " and b.status = ?4" +
+            " order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookingsOfOwnerByStatusAfter(long ownerId, LocalDateTime start, long id,
+                                                              BookingStatus status, Pageable pageable);
+
+    @Query("select b from Booking as b" +
+            " where b.item.id = ?1" +
+            " and b.status in ?2" +
+            " and b.end > ?3")
+    List<Booking> findBookingsOfItemEndingAfter(long itemId, Collection<BookingStatus> statuses, LocalDateTime time);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?4" +
+            " where b.id = ?1" +
+            " and b.status = ?3" +
+            " and b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int updateStatusOfOwnerBooking(long id, long ownerId, BookingStatus expectedStatus, BookingStatus status);
+
+    @Query("select b from Booking as b" +
+            " join fetch b.item" +
+            " join fetch b.booker" +
+            " where b.id = ?1")
+    Optional<Booking> findByIdWithItemAndBooker(long id);
+
+    @Query(value = "SELECT i.id FROM items AS i" +
+            " WHERE i.id = (SELECT b.item_id FROM bookings AS b WHERE b.id = ?1)" +
+            " AND i.owner_id = ?2" +
+            " FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockItemOfOwnerBooking(long id, long ownerId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE bookings AS b SET status = 'APPROVED'" +
+            " WHERE b.id = ?1" +
+            " AND b.status = 'WAITING'" +
+            " AND b.item_id IN (SELECT i.id FROM items AS i WHERE i.owner_id = ?2)" +
+            " AND NOT EXISTS (SELECT 1 FROM bookings AS o" +
+            " WHERE o.item_id = b.item_id" +
+            " AND o.status = 'APPROVED'" +
+            " AND o.start_date < b.end_date" +
+            " AND o.end_date > b.start_date)", nativeQuery = true)
+    int approveBookingIfNotOverlapping(long id, long ownerId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?4" +
+            " where b.id in ?1" +
+            " and b.status = ?3" +
+            " and b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int updateStatusOfOwnerBookings(Collection<Long> ids, long ownerId, BookingStatus expectedStatus,
+                                    BookingStatus status);
+
+    @Query("select distinct b.item.id from Booking as b" +
+            " where b.id in ?1")
+    List<Long> findItemIdsOfBookings(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking as b" +
+            " join fetch b.item" +
+            " where b.id in ?1" +
+            " order by b.id")
+    List<Booking> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @Query("select b from Booking as b" +
+            " where b.item.id in ?1" +
+            " and b.status = ?2" +
+            " and b.end > ?3")
+    List<Booking> findBookingsOfItemsEndingAfter(Collection<Long> itemIds, BookingStatus status, LocalDateTime time);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingItemDto(b.id, b.booker.id) from Booking as b" +
+            " where b.item.id = ?1" +
+            " and b.status = ?2" +
+            " and b.start < ?3" +
+            " order by b.end desc")
+    List<BookingItemDto> findPastBookingsOfItem(long id, BookingStatus status, LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingItemDto(b.id, b.booker.id) from Booking as b" +
+            " where b.item.id = ?1" +
+            " and b.status = ?2" +
+            " and b.start > ?3" +
+            " order by b.end")
+    List<BookingItemDto> findFutureBookingsOfItem(long id, BookingStatus status, LocalDateTime now,
+                                                  Pageable pageable);
+
+    @Query("select min(b.start) from Booking as b" +
+            " where b.item.id = ?1" +
+            " and b.status = ?2" +
+            " and b.start >= ?3")
+    Optional<LocalDateTime> findNearestBookingStartOfItem(long id, BookingStatus status, LocalDateTime now);
+
+    @Query(value = "SELECT item_id AS \"itemId\", id AS \"id\", booker_id AS \"bookerId\", past AS \"past\"" +
+            " FROM (SELECT b.item_id, b.id, b.booker_id, b.start_date < ?2 AS past," +
+            " ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < ?2" +
+            " ORDER BY CASE WHEN b.start_date < ?2 THEN b.end_date END DESC, b.end_date) AS position" +
+            " FROM bookings AS b" +
+            " WHERE b.item_id IN (?1)" +
+            " AND b.status = 'APPROVED'" +
+            " AND b.start_date <> ?2) AS ranked" +
+            " WHERE position = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextBookingsOfItems(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select b.id from Booking as b" +
+            " where b.end < ?1" +
+            " and b.status in ?2" +
+            " order by b.end")
+    List<Long> findIdsOfBookingsEndedBefore(LocalDateTime time, Collection<BookingStatus> statuses,
+                                            Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking as b" +
+            " where b.start < ?1" +
+            " and b.status = ?2" +
+            " order by b.id")
+    List<Booking> findBookingsStartedBeforeForUpdate(LocalDateTime time, BookingStatus status, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?3" +
+            " where b.id in ?1" +
+            " and b.status = ?2")
+    int updateStatusOfBookings(Collection<Long> ids, BookingStatus expectedStatus, BookingStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking as b" +
+            " where b.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Booking as b" +
+            " join fetch b.item" +
+            " where b.booker.id = ?1" +
+            " order by b.start desc, b.id desc")
+    Stream<Booking> streamAllBookingsOfBooker(long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Booking as b" +
+            " join fetch b.item as i" +
+            " where i.owner.id = ?1" +
+            " order by b.start desc, b.id desc")
+    Stream<Booking> streamAllBookingsOfOwner(long ownerId);
 }
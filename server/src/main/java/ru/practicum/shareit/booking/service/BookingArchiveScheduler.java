@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class BookingArchiveScheduler {
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingArchiveService bookingArchiveService;
+    private final Duration retention;
+
+    public BookingArchiveScheduler(BookingArchiveService bookingArchiveService,
+                                   @Value("${shareit.booking-archive.retention}") Duration retention) {
+        this.bookingArchiveService = bookingArchiveService;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.archive-delay}",
+            initialDelayString = "${shareit.booking-archive.archive-delay}")
+    public void archiveFinishedBookings() {
+        LocalDateTime time = LocalDateTime.now().minus(retention);
+
+        int archived;
+        int total = 0;
+        do {
+            archived = bookingArchiveService.archiveBookingsEndedBefore(time, BATCH_SIZE);
+            total += archived;
+        } while (archived == BATCH_SIZE);
+        log.debug("+ archiveFinishedBookings: {}", total);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished bookings to the bookings_archive table, so the bookings table holds only bookings that can still
+ * change or overlap new ones. WAITING bookings stay in place until they are approved, rejected or expired.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchiveService {
+    private static final List<BookingStatus> ARCHIVED_STATUSES = List.of(BookingStatus.APPROVED,
+            BookingStatus.REJECTED, BookingStatus.CANCELED, BookingStatus.EXPIRED);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+
+    @Transactional
+    public int archiveBookingsEndedBefore(LocalDateTime time, int limit) {
+        List<Long> ids = bookingRepository.findIdsOfBookingsEndedBefore(time, ARCHIVED_STATUSES,
+                PageRequest.of(0, limit));
+        log.debug("+ archiveBookingsEndedBefore: {}, {}", time, ids.size());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedBookingRepository.copyBookings(ids);
+        bookingRepository.deleteAllByIdIn(ids);
+
+        return ids.size();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class BookingExpiryScheduler {
+    private final BookingExpiryService bookingExpiryService;
+    private final int chunkSize;
+    private final Counter expiredCounter;
+    private final Timer expiryTimer;
+
+    public BookingExpiryScheduler(BookingExpiryService bookingExpiryService,
+                                  @Value("${shareit.booking-expiry.chunk-size}") int chunkSize,
+                                  MeterRegistry meterRegistry) {
+        this.bookingExpiryService = bookingExpiryService;
+        this.chunkSize = chunkSize;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("WAITING bookings moved to the EXPIRED status")
+                .register(meterRegistry);
+        this.expiryTimer = Timer.builder("shareit.bookings.expiry")
+                .description("Duration of runs of the booking expiry job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.expire-delay}",
+            initialDelayString = "${shareit.booking-expiry.expire-delay}")
+    public void expireStaleBookings() {
+        expiryTimer.record(() -> {
+            LocalDateTime time = LocalDateTime.now();
+
+            int expired;
+            int total = 0;
+            do {
+                expired = bookingExpiryService.expireBookingsStartedBefore(time, chunkSize);
+                total += expired;
+                expiredCounter.increment(expired);
+            } while (expired == chunkSize);
+            log.debug("+ expireStaleBookings: {}", total);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves WAITING bookings that were not decided before their start to the EXPIRED status. Each call changes one chunk
+ * in its own transaction, so rows stay locked only for a short time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    @Transactional
+    public int expireBookingsStartedBefore(LocalDateTime time, int limit) {
+        List<Booking> bookings = bookingRepository.findBookingsStartedBeforeForUpdate(time, BookingStatus.WAITING,
+                PageRequest.of(0, limit));
+        log.debug("+ expireBookingsStartedBefore: {}, {}", time, bookings.size());
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        int expired = bookingRepository.updateStatusOfBookings(bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()), BookingStatus.WAITING, BookingStatus.EXPIRED);
+        bookings.forEach(bookingIntervalIndex::release);
+
+        return expired;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes all bookings of a user as newline delimited JSON while reading them from the database, so memory use does
+ * not depend on the number of bookings. Live and archived bookings are merged in the order of the ALL state.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportService {
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserService userService;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    public StreamingResponseBody exportBookingsOfBooker(long userId) {
+        log.debug("+ exportBookingsOfBooker: {}", userId);
+        userService.checkUser(userId);
+
+        return outputStream -> export(outputStream, () -> bookingRepository.streamAllBookingsOfBooker(userId),
+                () -> archivedBookingRepository.streamAllBookingsOfBooker(userId)
+                        .map(bookingMapper::archivedBookingToBooking));
+    }
+
+    public StreamingResponseBody exportBookingsOfOwner(long userId) {
+        log.debug("+ exportBookingsOfOwner: {}", userId);
+        userService.checkUser(userId);
+
+        return outputStream -> export(outputStream, () -> bookingRepository.streamAllBookingsOfOwner(userId),
+                () -> archivedBookingRepository.streamAllBookingsOfOwner(userId)
+                        .map(bookingMapper::archivedBookingToBooking));
+    }
+
+    private void export(OutputStream outputStream, Supplier<Stream<Booking>> findLive,
+                        Supplier<Stream<Booking>> findArchived) {
+        // The body is written after the request handler returns, so the transaction is opened here.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Booking> live = findLive.get();
+                 Stream<Booking> archived = findArchived.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                write(live.iterator(), archived.iterator(), generator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Iterator<Booking> live, Iterator<Booking> archived, JsonGenerator generator)
+            throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        Booking nextLive = live.hasNext() ? live.next() : null;
+        Booking nextArchived = archived.hasNext() ? archived.next() : null;
+        int written = 0;
+        while (nextLive != null || nextArchived != null) {
+            Booking booking;
+            if (nextArchived == null || (nextLive != null
+                    && BookingServiceDbImpl.BOOKING_ORDER.compare(nextLive, nextArchived) <= 0)) {
+                booking = nextLive;
+                nextLive = live.hasNext() ? live.next() : null;
+            } else {
+                booking = nextArchived;
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+
+            writer.writeValue(generator, bookingMapper.bookingToBookingForResponseDto(booking));
+            generator.writeRaw('\n');
+            if (++written % CLEAR_INTERVAL == 0) {
+                // Written bookings are not needed anymore, the persistence context would keep them until the end.
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.RequestValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * WAITING and APPROVED booking intervals per item. The database is authoritative: reservations are made while the
+ * caller holds the row lock of the item, so they reload its intervals and see bookings of every node. Periods for
+ * availability are answered from the cache, which keeps at most maxItems recently used items, each for ttl, and is
+ * updated by {@link BookingServiceDbImpl} for changes made on this node. Intervals that ended are dropped when the
+ * item is accessed.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> items;
+    private final long ttlNanos;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking-interval-cache.size}") int maxItems,
+                                @Value("${shareit.booking-interval-cache.ttl}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > maxItems;
+            }
+        };
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Saves the booking if it overlaps no WAITING or APPROVED booking of its item. The caller holds the database
+     * lock of the item.
+     */
+    public Booking reserve(Booking booking, UnaryOperator<Booking> save) {
+        long itemId = booking.getItem().getId();
+        ItemIntervals intervals = reload(itemId);
+
+        synchronized (intervals) {
+            intervals.removeEndedBefore(LocalDateTime.now());
+            if (intervals.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new RequestValidationException(String.format("Item %s is already booked for period from %s" +
+                        " to %s", itemId, booking.getStart(), booking.getEnd()));
+            }
+
+            Booking savedBooking = save.apply(booking);
+            BookingInterval interval = new BookingInterval(savedBooking.getId(), savedBooking.getStart(),
+                    savedBooking.getEnd());
+            intervals.add(interval);
+            afterRollback(() -> remove(itemId, interval));
+
+            return savedBooking;
+        }
+    }
+
+    /**
+     * Saves bookings that overlap neither reserved intervals nor each other with one call of saveAll and returns
+     * the rejected ones. The caller holds the database locks of the items. Intervals are locked in item id order,
+     * so concurrent batches can not deadlock.
+     */
+    public List<Booking> reserveAll(List<Booking> bookings, UnaryOperator<List<Booking>> saveAll) {
+        Map<Long, ItemIntervals> itemIntervals = new TreeMap<>();
+        bookings.forEach(booking -> itemIntervals.computeIfAbsent(booking.getItem().getId(), this::reload));
+
+        return lockAll(itemIntervals.values().iterator(), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            itemIntervals.values().forEach(intervals -> intervals.removeEndedBefore(now));
+
+            List<Booking> acceptedBookings = new ArrayList<>();
+            List<BookingInterval> pendingIntervals = new ArrayList<>();
+            List<Booking> rejectedBookings = new ArrayList<>();
+            for (Booking booking : bookings) {
+                ItemIntervals intervals = itemIntervals.get(booking.getItem().getId());
+                if (intervals.overlaps(booking.getStart(), booking.getEnd())) {
+                    rejectedBookings.add(booking);
+                    continue;
+                }
+
+                // Unsaved bookings get negative ids, so later bookings of the batch are checked against them.
+                BookingInterval pendingInterval = new BookingInterval(-(pendingIntervals.size() + 1),
+                        booking.getStart(), booking.getEnd());
+                intervals.add(pendingInterval);
+                pendingIntervals.add(pendingInterval);
+                acceptedBookings.add(booking);
+            }
+            if (acceptedBookings.isEmpty()) {
+                return rejectedBookings;
+            }
+
+            List<Booking> savedBookings;
+            try {
+                savedBookings = saveAll.apply(acceptedBookings);
+            } finally {
+                for (int i = 0; i < acceptedBookings.size(); i++) {
+                    itemIntervals.get(acceptedBookings.get(i).getItem().getId()).remove(pendingIntervals.get(i));
+                }
+            }
+            for (Booking savedBooking : savedBookings) {
+                long itemId = savedBooking.getItem().getId();
+                BookingInterval interval = new BookingInterval(savedBooking.getId(), savedBooking.getStart(),
+                        savedBooking.getEnd());
+                itemIntervals.get(itemId).add(interval);
+                afterRollback(() -> remove(itemId, interval));
+            }
+
+            return rejectedBookings;
+        });
+    }
+
+    /**
+     * Returns periods of WAITING and APPROVED bookings of the item that intersect the period from - to, ordered by
+     * start. Bookings made or decided on other nodes are seen once the cached item expires.
+     */
+    public List<BookingPeriodDto> findReservedPeriods(long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = intervalsOf(itemId);
+
+        synchronized (intervals) {
+            intervals.removeEndedBefore(LocalDateTime.now());
+            List<BookingPeriodDto> periods = new ArrayList<>();
+            for (BookingInterval interval : intervals.intersecting(from, to)) {
+                periods.add(new BookingPeriodDto(interval.start, interval.end));
+            }
+
+            return periods;
+        }
+    }
+
+    /**
+     * Frees the period of the booking. Inside a transaction the period is freed only after commit, so it stays
+     * reserved if the status change is rolled back.
+     */
+    public void release(Booking booking) {
+        long itemId = booking.getItem().getId();
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(itemId, interval);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemId, interval);
+            }
+        });
+    }
+
+    /**
+     * Periods are reserved as soon as bookings are saved, so concurrent reservations see them before commit. They
+     * are freed again if the transaction that saved them does not commit.
+     */
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void remove(long itemId, BookingInterval interval) {
+        ItemIntervals intervals;
+        synchronized (items) {
+            intervals = items.get(itemId);
+        }
+        if (intervals == null) {
+            return;
+        }
+
+        synchronized (intervals) {
+            intervals.remove(interval);
+        }
+    }
+
+    private <T> T lockAll(Iterator<ItemIntervals> intervals, Supplier<T> action) {
+        if (!intervals.hasNext()) {
+            return action.get();
+        }
+
+        ItemIntervals next = intervals.next();
+        synchronized (next) {
+            return lockAll(intervals, action);
+        }
+    }
+
+    private ItemIntervals intervalsOf(long itemId) {
+        synchronized (items) {
+            ItemIntervals intervals = items.get(itemId);
+            if (intervals != null && System.nanoTime() - intervals.loadedAt < ttlNanos) {
+                return intervals;
+            }
+        }
+
+        return reload(itemId);
+    }
+
+    private ItemIntervals reload(long itemId) {
+        ItemIntervals intervals = load(itemId);
+        synchronized (items) {
+            items.put(itemId, intervals);
+        }
+
+        return intervals;
+    }
+
+    private ItemIntervals load(long itemId) {
+        log.debug("+ load booking intervals of item: {}", itemId);
+
+        ItemIntervals intervals = new ItemIntervals();
+        bookingRepository.findBookingsOfItemEndingAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> intervals.add(new BookingInterval(booking.getId(), booking.getStart(),
+                        booking.getEnd())));
+
+        return intervals;
+    }
+
+    private static class BookingInterval {
+        private static final Comparator<BookingInterval> ORDER = Comparator
+                .comparing((BookingInterval interval) -> interval.start)
+                .thenComparingLong(interval -> interval.bookingId);
+
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        BookingInterval(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static class ItemIntervals {
+        private final NavigableSet<BookingInterval> intervals = new TreeSet<>(BookingInterval.ORDER);
+        private final long loadedAt = System.nanoTime();
+        private Duration maxDuration = Duration.ZERO;
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            // Intervals starting before start - maxDuration end before start too, so the scan stops there.
+            LocalDateTime scanLimit = start.minus(maxDuration);
+
+            for (BookingInterval interval : intervals.headSet(new BookingInterval(Long.MIN_VALUE, end, end), false)
+                    .descendingSet()) {
+                if (interval.start.isBefore(scanLimit)) {
+                    return false;
+                }
+                if (interval.end.isAfter(start)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        Iterable<BookingInterval> intersecting(LocalDateTime from, LocalDateTime to) {
+            // Intervals starting before from - maxDuration end before from, so they are skipped by the range.
+            LocalDateTime scanStart = from.minus(maxDuration);
+            List<BookingInterval> intersecting = new ArrayList<>();
+            for (BookingInterval interval : intervals.subSet(new BookingInterval(Long.MIN_VALUE, scanStart, scanStart),
+                    true, new BookingInterval(Long.MIN_VALUE, to, to), false)) {
+                if (interval.end.isAfter(from)) {
+                    intersecting.add(interval);
+                }
+            }
+
+            return intersecting;
+        }
+
+        void add(BookingInterval interval) {
+            intervals.add(interval);
+
+            Duration duration = Duration.between(interval.start, interval.end);
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+        }
+
+        void remove(BookingInterval interval) {
+            if (intervals.remove(interval) && Duration.between(interval.start, interval.end).equals(maxDuration)) {
+                updateMaxDuration();
+            }
+        }
+
+        void removeEndedBefore(LocalDateTime time) {
+            // Only intervals starting before time can end before it, the rest of the set is not scanned.
+            boolean longestRemoved = false;
+            Iterator<BookingInterval> iterator = intervals.headSet(new BookingInterval(Long.MIN_VALUE, time, time),
+                    false).iterator();
+            while (iterator.hasNext()) {
+                BookingInterval interval = iterator.next();
+                if (!interval.end.isAfter(time)) {
+                    iterator.remove();
+                    longestRemoved |= Duration.between(interval.start, interval.end).equals(maxDuration);
+                }
+            }
+            if (longestRemoved) {
+                updateMaxDuration();
+            }
+        }
+
+        private void updateMaxDuration() {
+            maxDuration = Duration.ZERO;
+            for (BookingInterval interval : intervals) {
+                Duration duration = Duration.between(interval.start, interval.end);
+                if (duration.compareTo(maxDuration) > 0) {
+                    maxDuration = duration;
+                }
+            }
+        }
+    }
+}
@@ -2,7 +2,11 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCreateResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
 
 import java.util.List;
 
@@ -15,7 +19,15 @@ public interface BookingService {
 
     List<BookingResponseDto> findAllBookingsByOwnerId(long userId, String state, int from, int size);
 
+    BookingPageDto findBookingsPageByUserId(long userId, String state, String cursor, int size);
+
+    BookingPageDto findBookingsPageByOwnerId(long userId, String state, String cursor, int size);
+
     BookingResponseDto createNewBooking(long userId, BookingCreateDto bookingDto);
 
+    List<BookingCreateResultDto> createNewBookings(long userId, List<BookingCreateDto> bookingDtos);
+
     BookingResponseDto updateBookingStatus(long userId, long id, boolean approved);
+
+    List<BookingStatusUpdateResultDto> updateBookingStatuses(long userId, List<BookingStatusUpdateDto> updates);
 }
@@ -2,39 +2,74 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCreateResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemBookingStatsService;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceDbImpl implements BookingService {
+    static final Comparator<Booking> BOOKING_ORDER = Comparator.comparing(Booking::getStart)
+            .thenComparingLong(Booking::getId)
+            .reversed();
+    private static final Comparator<BookingResponseDto> BOOKING_RESPONSE_ORDER = Comparator
+            .comparing(BookingResponseDto::getStart)
+            .thenComparingLong(BookingResponseDto::getId)
+            .reversed();
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserService userService;
     private final ItemService itemService;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemBookingStatsService itemBookingStatsService;
 
     @Override
     public BookingResponseDto findBooking(long userId, long id) {
         userService.checkUser(userId);
 
-        Booking booking = bookingRepository.findById(id).orElseThrow(() ->
+        Booking booking = findLiveOrArchivedBooking(id).orElseThrow(() ->
                 new IdNotFoundException(String.format("Booking with id %s not exist", id)));
         validateViewer(userId, booking);
 
@@ -51,31 +86,42 @@ public class BookingServiceDbImpl implements BookingService {
     public List<BookingResponseDto> findAllBookingsByUserId(long userId, String state, int from, int size) {
         userService.checkUser(userId);
 
-        List<Booking> bookings = bookingRepository
-                .findAllByBookerIdOrderByStartDesc(userId);
-
-        return filterBookingsByState(bookings, state).stream()
-                .map(bookingMapper::bookingToBookingForResponseDto)
-                .skip(from)
-                .limit(size)
-                .collect(Collectors.toList());
+        return findBookingsOfBookerByState(userId, state, new OffsetLimitPageable(from, size));
     }
 
     @Override
     public List<BookingResponseDto> findAllBookingsByOwnerId(long userId, String state, int from, int size) {
         userService.checkUser(userId);
 
-        List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdOrderByStartDesc(userId);
+        return findBookingsOfOwnerByState(userId, state, new OffsetLimitPageable(from, size));
+    }
+
+    @Override
+    public BookingPageDto findBookingsPageByUserId(long userId, String state, String cursor, int size) {
+        userService.checkUser(userId);
 
-        return filterBookingsByState(bookings, state).stream()
-                .map(bookingMapper::bookingToBookingForResponseDto)
-                .skip(from)
-                .limit(size)
-                .collect(Collectors.toList());
+        Pageable pageable = new OffsetLimitPageable(0, size + 1);
+        List<BookingResponseDto> bookings = cursor.isEmpty()
+                ? findBookingsOfBookerByState(userId, state, pageable)
+                : findBookingsOfBookerByStateAfter(userId, state, BookingCursor.decode(cursor), pageable);
+
+        return toBookingPage(bookings, size);
+    }
+
+    @Override
+    public BookingPageDto findBookingsPageByOwnerId(long userId, String state, String cursor, int size) {
+        userService.checkUser(userId);
+
+        Pageable pageable = new OffsetLimitPageable(0, size + 1);
+        List<BookingResponseDto> bookings = cursor.isEmpty()
+                ? findBookingsOfOwnerByState(userId, state, pageable)
+                : findBookingsOfOwnerByStateAfter(userId, state, BookingCursor.decode(cursor), pageable);
+
+        return toBookingPage(bookings, size);
     }
 
     @Override
+    @Transactional
     public BookingResponseDto createNewBooking(long userId, BookingCreateDto bookingDto) {
         log.debug("+ createNewBooking: {}, {}", userId, bookingDto);
 
@@ -94,23 +140,212 @@ public class BookingServiceDbImpl implements BookingService {
 
         booking.setStatus(BookingStatus.WAITING);
 
-        return bookingMapper.bookingToBookingForResponseDto(bookingRepository.save(booking));
+        // Locked before the booking row references it, in the order status updates take the locks.
+        itemService.lockItem(item.getId());
+        Booking savedBooking = bookingIntervalIndex.reserve(booking, bookingRepository::save);
+        itemBookingStatsService.countCreated(List.of(savedBooking));
+
+        return bookingMapper.bookingToBookingForResponseDto(savedBooking);
     }
 
     @Override
+    @Transactional
+    public List<BookingCreateResultDto> createNewBookings(long userId, List<BookingCreateDto> bookingDtos) {
+        log.debug("+ createNewBookings: {}, {}", userId, bookingDtos);
+
+        User booker = userService.checkUser(userId);
+        Map<Long, Item> items = new HashMap<>();
+        List<BookingCreateResultDto> results = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        Map<Booking, BookingCreateResultDto> bookingResults = new IdentityHashMap<>();
+
+        for (BookingCreateDto bookingDto : bookingDtos) {
+            BookingCreateResultDto result = BookingCreateResultDto.builder().build();
+            results.add(result);
+
+            try {
+                Item item = items.computeIfAbsent(bookingDto.getItemId(), itemService::checkItem);
+                validateBooker(booker, item);
+                validateAvailable(item);
+
+                Booking booking = Booking.builder()
+                        .start(bookingDto.getStart())
+                        .end(bookingDto.getEnd())
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build();
+                bookings.add(booking);
+                bookingResults.put(booking, result);
+            } catch (IdNotFoundException | AccessNotAllowedException | RequestValidationException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(TreeSet::new))
+                .forEach(itemService::lockItem);
+        Set<Booking> rejectedBookings = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejectedBookings.addAll(bookingIntervalIndex.reserveAll(bookings, bookingRepository::saveAll));
+        rejectedBookings.forEach(booking ->
+                bookingResults.get(booking).setError(overlappingBookingException(booking).getMessage()));
+        List<Booking> savedBookings = bookings.stream()
+                .filter(booking -> !rejectedBookings.contains(booking))
+                .collect(Collectors.toList());
+        if (!savedBookings.isEmpty()) {
+            itemBookingStatsService.countCreated(savedBookings);
+        }
+        bookingResults.forEach((booking, result) -> {
+            if (result.getError() == null) {
+                result.setBooking(bookingMapper.bookingToBookingForResponseDto(booking));
+            }
+        });
+
+        return results;
+    }
+
+    @Override
+    @Transactional
     public BookingResponseDto updateBookingStatus(long userId, long id, boolean approved) {
         log.debug("+ updateBookingStatus: {}, {}, {}", userId, id, approved);
 
+        // Items are locked before their bookings by every status update, so concurrent updates can not deadlock.
+        // Ownership and status are checked by the updates themselves, the cause is looked up only when they fail.
+        long itemId = bookingRepository.lockItemOfOwnerBooking(id, userId).orElseThrow(() ->
+                statusNotUpdatedException(userId, id));
+        Booking booking;
+        if (approved) {
+            approveBooking(userId, id, itemId);
+            booking = bookingRepository.findByIdWithItemAndBooker(id).orElseThrow();
+            itemBookingSummaryService.refresh(itemId);
+            itemBookingStatsService.countDecided(List.of(booking), List.of());
+        } else {
+            if (bookingRepository.updateStatusOfOwnerBooking(id, userId, BookingStatus.WAITING,
+                    BookingStatus.REJECTED) == 0) {
+                throw statusNotUpdatedException(userId, id);
+            }
+            booking = bookingRepository.findByIdWithItemAndBooker(id).orElseThrow();
+            bookingIntervalIndex.release(booking);
+            itemBookingStatsService.countDecided(List.of(), List.of(booking));
+        }
+
+        return bookingMapper.bookingToBookingForResponseDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusUpdateResultDto> updateBookingStatuses(long userId,
+                                                                    List<BookingStatusUpdateDto> updates) {
+        log.debug("+ updateBookingStatuses: {}, {}", userId, updates);
+
         userService.checkUser(userId);
-        Booking booking = checkBooking(id);
-        validateOwner(userId, booking);
 
-        validateApproved(booking);
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        Set<Long> ids = updates.stream()
+                .map(BookingStatusUpdateDto::getId)
+                .collect(Collectors.toSet());
+        new TreeSet<>(bookingRepository.findItemIdsOfBookings(ids)).forEach(itemService::lockItem);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInForUpdate(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingStatusUpdateResultDto> results = new ArrayList<>();
+        Map<Long, BookingStatusUpdateResultDto> acceptedResults = new HashMap<>();
+        List<Booking> approvedBookings = new ArrayList<>();
+        List<Booking> rejectedBookings = new ArrayList<>();
 
-        bookingRepository.save(booking);
+        for (BookingStatusUpdateDto update : updates) {
+            BookingStatusUpdateResultDto result = BookingStatusUpdateResultDto.builder()
+                    .id(update.getId())
+                    .build();
+            results.add(result);
 
-        return bookingMapper.bookingToBookingForResponseDto(booking);
+            try {
+                Booking booking = bookings.get(update.getId());
+                if (booking == null) {
+                    throw new IdNotFoundException(String.format("Booking with id %s not exist", update.getId()));
+                }
+                validateOwner(userId, booking);
+                if (acceptedResults.containsKey(booking.getId())) {
+                    throw new RequestValidationException(String.format("Booking %s is repeated in batch",
+                            booking.getId()));
+                }
+                if (booking.getStatus() != BookingStatus.WAITING) {
+                    throw new RequestValidationException(String.format("Booking %s is already %s", booking.getId(),
+                            booking.getStatus().name().toLowerCase()));
+                }
+
+                acceptedResults.put(booking.getId(), result);
+                (update.isApproved() ? approvedBookings : rejectedBookings).add(booking);
+            } catch (IdNotFoundException | AccessNotAllowedException | RequestValidationException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        for (Booking booking : findOverlappingBookings(approvedBookings)) {
+            acceptedResults.get(booking.getId()).setError(overlappingBookingException(booking).getMessage());
+            approvedBookings.remove(booking);
+        }
+
+        updateStatusOfOwnerBookings(userId, approvedBookings, BookingStatus.APPROVED, acceptedResults);
+        updateStatusOfOwnerBookings(userId, rejectedBookings, BookingStatus.REJECTED, acceptedResults);
+        rejectedBookings.forEach(bookingIntervalIndex::release);
+        approvedBookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemBookingSummaryService::refresh);
+        itemBookingStatsService.countDecided(approvedBookings, rejectedBookings);
+
+        return results;
+    }
+
+    private List<Booking> findOverlappingBookings(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+
+        LocalDateTime minStart = bookings.stream()
+                .map(Booking::getStart)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        List<Booking> acceptedBookings = new ArrayList<>(bookingRepository.findBookingsOfItemsEndingAfter(itemIds,
+                BookingStatus.APPROVED, minStart));
+        List<Booking> overlappingBookings = new ArrayList<>();
+
+        for (Booking booking : bookings) {
+            if (acceptedBookings.stream().anyMatch(accepted -> overlaps(accepted, booking))) {
+                overlappingBookings.add(booking);
+            } else {
+                acceptedBookings.add(booking);
+            }
+        }
+
+        return overlappingBookings;
+    }
+
+    private void updateStatusOfOwnerBookings(long userId, List<Booking> bookings, BookingStatus status,
+                                             Map<Long, BookingStatusUpdateResultDto> results) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        bookings.forEach(booking -> {
+            BookingResponseDto bookingDto = bookingMapper.bookingToBookingForResponseDto(booking);
+            bookingDto.setStatus(status);
+            results.get(booking.getId()).setBooking(bookingDto);
+        });
+
+        bookingRepository.updateStatusOfOwnerBookings(bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()), userId, BookingStatus.WAITING, status);
+    }
+
+    private boolean overlaps(Booking booking, Booking other) {
+        return booking.getItem().getId() == other.getItem().getId()
+                && booking.getStart().isBefore(other.getEnd())
+                && booking.getEnd().isAfter(other.getStart());
     }
 
     private void validateAvailable(Item item) {
@@ -133,44 +368,225 @@ public class BookingServiceDbImpl implements BookingService {
         }
     }
 
-    private void validateApproved(Booking booking) {
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new RequestValidationException(String.format("Booking %s is already approved", booking.getId()));
+    /**
+     * Explains a status update that changed no rows: the booking is missing, belongs to another owner, is already
+     * decided or, while still waiting, overlaps an approved booking.
+     */
+    private RequestValidationException statusNotUpdatedException(long userId, long id) {
+        userService.checkUser(userId);
+        Booking booking = findLiveOrArchivedBooking(id).orElseThrow(() ->
+                new IdNotFoundException(String.format("Booking with id %s not exist", id)));
+        validateOwner(userId, booking);
+        if (booking.getStatus() == BookingStatus.WAITING) {
+            return overlappingBookingException(booking);
+        }
+
+        return new RequestValidationException(String.format("Booking %s is already %s", id,
+                booking.getStatus().name().toLowerCase()));
+    }
+
+    private void approveBooking(long userId, long id, long itemId) {
+        // The item lock makes the overlap check see concurrent approvals on databases without
+        // ex_booking_approved_period.
+        int updated;
+        try {
+            updated = bookingRepository.approveBookingIfNotOverlapping(id, userId);
+        } catch (DataIntegrityViolationException e) {
+            // The failed statement aborts the transaction on Postgres, so the cause can not be looked up.
+            throw new RequestValidationException(String.format("Item %s is already booked for period of booking %s",
+                    itemId, id));
+        }
+        if (updated == 0) {
+            throw statusNotUpdatedException(userId, id);
         }
     }
 
+    private RequestValidationException overlappingBookingException(Booking booking) {
+        return new RequestValidationException(String.format("Item %s is already booked for period from %s to %s",
+                booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
     private void validateBooker(User booker, Item item) {
-        if (booker.equals(item.getOwner())) {
+        if (booker.getId() == item.getOwner().getId()) {
             throw new AccessNotAllowedException(String.format("User %s is owner of item %s", booker.getId(),
                     item.getId()));
         }
     }
 
-    private List<Booking> filterBookingsByState(List<Booking> bookings, String state) {
+    private List<BookingResponseDto> findBookingsOfBookerByState(long bookerId, String state, Pageable pageable) {
+        switch (state) {
+            case "CURRENT":
+                return bookingRepository.findCurrentBookingsOfBooker(bookerId, LocalDateTime.now(), pageable);
+            case "PAST":
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedPastBookingsOfBooker(bookerId,
+                        LocalDateTime.now(), pageable));
+            case "FUTURE":
+                return bookingRepository.findFutureBookingsOfBooker(bookerId, LocalDateTime.now(), pageable);
+            case "WAITING":
+                return bookingRepository.findBookingsOfBookerByStatus(bookerId, BookingStatus.WAITING, pageable);
+            case "REJECTED":
+            case "EXPIRED":
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedBookingsOfBookerByStatus(
+                        bookerId, state, pageable));
+            default:
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedBookingsOfBooker(bookerId,
+                        pageable));
+        }
+    }
+
+    private List<BookingResponseDto> findBookingsOfOwnerByState(long ownerId, String state, Pageable pageable) {
+        switch (state) {
+            case "CURRENT":
+                return bookingRepository.findCurrentBookingsOfOwner(ownerId, LocalDateTime.now(), pageable);
+            case "PAST":
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedPastBookingsOfOwner(ownerId,
+                        LocalDateTime.now(), pageable));
+            case "FUTURE":
+                return bookingRepository.findFutureBookingsOfOwner(ownerId, LocalDateTime.now(), pageable);
+            case "WAITING":
+                return bookingRepository.findBookingsOfOwnerByStatus(ownerId, BookingStatus.WAITING, pageable);
+            case "REJECTED":
+            case "EXPIRED":
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedBookingsOfOwnerByStatus(
+                        ownerId, state, pageable));
+            default:
+                return toBookingResponseDtos(archivedBookingRepository.findLiveAndArchivedBookingsOfOwner(ownerId,
+                        pageable));
+        }
+    }
+
+    private List<BookingResponseDto> findBookingsOfBookerByStateAfter(long bookerId, String state, BookingCursor cursor,
+                                                           Pageable pageable) {
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+
         switch (state) {
             case "CURRENT":
-                return bookings.stream()
-                        .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                                booking.getEnd().isAfter(LocalDateTime.now()))
-                        .collect(Collectors.toList());
+                return bookingRepository.findCurrentBookingsOfBookerAfter(bookerId, start, id, LocalDateTime.now(),
+                        pageable);
             case "PAST":
-                return bookings.stream()
-                        .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                        .collect(Collectors.toList());
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findPastBookingsOfBookerAfter(bookerId, start, id,
+                                LocalDateTime.now(), livePageable),
+                        archivePageable -> archivedBookingRepository.findAllBookingsOfBookerAfter(bookerId, start, id,
+                                archivePageable));
             case "FUTURE":
-                return bookings.stream()
-                        .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                        .collect(Collectors.toList());
+                return bookingRepository.findFutureBookingsOfBookerAfter(bookerId, start, id, LocalDateTime.now(),
+                        pageable);
             case "WAITING":
-                return bookings.stream()
-                        .filter(booking -> booking.getStatus().equals(BookingStatus.WAITING))
-                        .collect(Collectors.toList());
+                return bookingRepository.findBookingsOfBookerByStatusAfter(bookerId, start, id,
+                        BookingStatus.WAITING, pageable);
             case "REJECTED":
-                return bookings.stream()
-                        .filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED))
-                        .collect(Collectors.toList());
+            case "EXPIRED":
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findBookingsOfBookerByStatusAfter(bookerId, start, id,
+                                BookingStatus.valueOf(state), livePageable),
+                        archivePageable -> archivedBookingRepository.findBookingsOfBookerByStatusAfter(bookerId,
+                                start, id, BookingStatus.valueOf(state), archivePageable));
             default:
-                return bookings;
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findAllBookingsOfBookerAfter(bookerId, start, id,
+                                livePageable),
+                        archivePageable -> archivedBookingRepository.findAllBookingsOfBookerAfter(bookerId, start, id,
+                                archivePageable));
         }
     }
+
+    private List<BookingResponseDto> findBookingsOfOwnerByStateAfter(long ownerId, String state, BookingCursor cursor,
+                                                          Pageable pageable) {
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+
+        switch (state) {
+            case "CURRENT":
+                return bookingRepository.findCurrentBookingsOfOwnerAfter(ownerId, start, id, LocalDateTime.now(),
+                        pageable);
+            case "PAST":
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findPastBookingsOfOwnerAfter(ownerId, start, id,
+                                LocalDateTime.now(), livePageable),
+                        archivePageable -> archivedBookingRepository.findAllBookingsOfOwnerAfter(ownerId, start, id,
+                                archivePageable));
+            case "FUTURE":
+                return bookingRepository.findFutureBookingsOfOwnerAfter(ownerId, start, id, LocalDateTime.now(),
+                        pageable);
+            case "WAITING":
+                return bookingRepository.findBookingsOfOwnerByStatusAfter(ownerId, start, id,
+                        BookingStatus.WAITING, pageable);
+            case "REJECTED":
+            case "EXPIRED":
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findBookingsOfOwnerByStatusAfter(ownerId, start, id,
+                                BookingStatus.valueOf(state), livePageable),
+                        archivePageable -> archivedBookingRepository.findBookingsOfOwnerByStatusAfter(ownerId,
+                                start, id, BookingStatus.valueOf(state), archivePageable));
+            default:
+                return withArchived(pageable,
+                        livePageable -> bookingRepository.findAllBookingsOfOwnerAfter(ownerId, start, id,
+                                livePageable),
+                        archivePageable -> archivedBookingRepository.findAllBookingsOfOwnerAfter(ownerId, start, id,
+                                archivePageable));
+        }
+    }
+
+    private Optional<Booking> findLiveOrArchivedBooking(long id) {
+        Optional<Booking> booking = bookingRepository.findById(id);
+        if (booking.isPresent()) {
+            return booking;
+        }
+
+        return archivedBookingRepository.findById(id).map(bookingMapper::archivedBookingToBooking);
+    }
+
+    /**
+     * Merges bookings of the live and the archive tables after a cursor, both sorted by start and id descending.
+     * Either table may hold any bookings of the page, so the page is read from both. Pages by offset are read with
+     * one UNION ALL query instead.
+     */
+    private List<BookingResponseDto> withArchived(Pageable pageable,
+                                                  Function<Pageable, List<BookingResponseDto>> findLive,
+                                                  Function<Pageable, List<BookingResponseDto>> findArchived) {
+        List<BookingResponseDto> live = findLive.apply(pageable);
+        List<BookingResponseDto> archived = findArchived.apply(pageable);
+        if (archived.isEmpty()) {
+            return live;
+        }
+
+        List<BookingResponseDto> merged = new ArrayList<>(live.size() + archived.size());
+        int i = 0;
+        int j = 0;
+        while (i < live.size() || j < archived.size()) {
+            if (j == archived.size() || (i < live.size()
+                    && BOOKING_RESPONSE_ORDER.compare(live.get(i), archived.get(j)) <= 0)) {
+                merged.add(live.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+
+        return merged.subList(0, Math.min(pageable.getPageSize(), merged.size()));
+    }
+
+    /**
+     * Maps rows of id, start, end, status, booker id, item id and item name read by native queries. Rows are read as
+     * arrays, proxies of interface projections allocate several times more on long pages.
+     */
+    private List<BookingResponseDto> toBookingResponseDtos(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new BookingResponseDto(((Number) row[0]).longValue(),
+                        ((Timestamp) row[1]).toLocalDateTime(), ((Timestamp) row[2]).toLocalDateTime(),
+                        BookingStatus.valueOf((String) row[3]), ((Number) row[4]).longValue(),
+                        ((Number) row[5]).longValue(), (String) row[6]))
+                .collect(Collectors.toList());
+    }
+
+    private BookingPageDto toBookingPage(List<BookingResponseDto> bookings, int size) {
+        boolean hasNext = bookings.size() > size;
+        List<BookingResponseDto> page = hasNext ? bookings.subList(0, size) : bookings;
+
+        return BookingPageDto.builder()
+                .bookings(page)
+                .next(hasNext ? BookingCursor.of(page.get(size - 1)).encode() : null)
+                .build();
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +14,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
 import ru.practicum.shareit.item.dto.ItemExtendedResponseDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +31,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+    private static final String RELEVANCE_SORT = "relevance";
+
     private final ItemService itemService;
 
     @GetMapping("/{id}")
@@ -32,6 +40,34 @@ public class ItemController {
         return itemService.findItem(userId, id);
     }
 
+    @GetMapping("/{id}/comments")
+    public List<CommentResponseDto> findComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @PathVariable long id,
+                                                 @RequestParam(defaultValue = "0") int from,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return itemService.findItemComments(userId, id, from, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto findAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @PathVariable long id,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to) {
+        return itemService.findItemAvailability(userId, id, from, to);
+    }
+
+    @GetMapping("/stats")
+    public List<ItemStatsDto> findStats(@RequestHeader("X-Sharer-User-Id") long userId,
+                                        @RequestParam(defaultValue = "DAY") String bucket,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                        LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                        LocalDate to) {
+        return itemService.findItemStats(userId, bucket, from, to);
+    }
+
     @GetMapping
     public List<ItemExtendedResponseDto> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(defaultValue = "0") int from,
@@ -43,10 +79,25 @@ public class ItemController {
     public List<ItemResponseDto> search(@RequestHeader("X-Sharer-User-Id") long userId,
                                         @RequestParam(defaultValue = "0") int from,
                                         @RequestParam(defaultValue = "20") int size,
-                                        @RequestParam String text) {
+                                        @RequestParam String text,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(defaultValue = "false") boolean fuzzy) {
+        if (fuzzy) {
+            return itemService.searchItemFuzzy(userId, text, from, size);
+        }
+        if (RELEVANCE_SORT.equals(sort)) {
+            return itemService.searchItemByRelevance(userId, text, from, size);
+        }
+
         return itemService.searchItem(userId, text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") int size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
     @PostMapping
     public ItemResponseDto create(@RequestHeader("X-Sharer-User-Id") long userId,
                                   @RequestBody ItemCreateUpdateDto itemDto) {
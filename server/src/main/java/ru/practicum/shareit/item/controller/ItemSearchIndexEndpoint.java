@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchIndexDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+/**
+ * Maintenance endpoint of the search index, served by actuator on the management port only.
+ */
+@Component
+@Endpoint(id = "searchindex")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndexEndpoint {
+    private final ItemService itemService;
+
+    @WriteOperation
+    public ItemSearchIndexDto rebuild() {
+        log.debug("Received POST-request /actuator/searchindex");
+
+        return itemService.rebuildSearchIndex();
+    }
+}
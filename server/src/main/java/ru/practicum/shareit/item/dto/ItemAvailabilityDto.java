@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@Data
+public class ItemAvailabilityDto {
+    private long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<BookingPeriodDto> free;
+    private List<BookingPeriodDto> busy;
+}
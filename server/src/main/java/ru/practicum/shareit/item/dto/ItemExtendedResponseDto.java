@@ -16,4 +16,5 @@ public class ItemExtendedResponseDto {
     private BookingItemDto lastBooking;
     private BookingItemDto nextBooking;
     private List<CommentResponseDto> comments;
+    private long commentsCount;
 }
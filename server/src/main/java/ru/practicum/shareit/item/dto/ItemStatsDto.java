@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Builder
+@Data
+public class ItemStatsDto {
+    private long itemId;
+    private LocalDate start;
+    private int bookings;
+    private int approved;
+    private int rejected;
+    private double bookedHours;
+    private Double approvalRatio;
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "comment_eligibility")
+@IdClass(CommentEligibility.Key.class)
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentEligibility {
+    @Id
+    private long userId;
+
+    @Id
+    private long itemId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long userId;
+        private long itemId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CommentEligibility eligibility = (CommentEligibility) o;
+        return userId == eligibility.userId && itemId == eligibility.itemId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 42;
+    }
+
+    @Override
+    public String toString() {
+        return "CommentEligibility{" +
+                "userId=" + userId +
+                ", itemId=" + itemId +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Booking counters of an item for one day. Bookings are counted on the day of their start, booked minutes of
+ * approved bookings on each day they cover.
+ */
+@Entity
+@Table(name = "item_booking_stats")
+@IdClass(ItemBookingStats.Key.class)
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingStats {
+    @Id
+    private long itemId;
+
+    @Id
+    @Column(name = "booking_day")
+    private LocalDate day;
+
+    private int bookings;
+
+    private int approved;
+
+    private int rejected;
+
+    private long bookedMinutes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long itemId;
+        private LocalDate day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemBookingStats stats = (ItemBookingStats) o;
+        return itemId == stats.itemId && day.equals(stats.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return 42;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemBookingStats{" +
+                "itemId=" + itemId +
+                ", day=" + day +
+                ", bookings=" + bookings +
+                ", approved=" + approved +
+                ", rejected=" + rejected +
+                ", bookedMinutes=" + bookedMinutes +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summary")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    private long itemId;
+
+    private Long lastBookingId;
+
+    private Long lastBookerId;
+
+    private Long nextBookingId;
+
+    private Long nextBookerId;
+
+    private LocalDateTime refreshAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemBookingSummary summary = (ItemBookingSummary) o;
+        return itemId == summary.itemId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 42;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemBookingSummary{" +
+                "itemId=" + itemId +
+                ", lastBookingId=" + lastBookingId +
+                ", nextBookingId=" + nextBookingId +
+                ", refreshAt=" + refreshAt +
+                '}';
+    }
+}
@@ -23,4 +23,6 @@ public interface ItemMapper {
     @Mapping(source = "comment.id", target = "id")
     @Mapping(source = "author.name", target = "authorName")
     CommentResponseDto commentToCommentForResponseDto(Comment comment, User author);
+
+    CommentResponseDto commentViewToCommentForResponseDto(CommentView commentView);
 }
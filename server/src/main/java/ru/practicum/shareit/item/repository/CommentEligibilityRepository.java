@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.entity.CommentEligibility;
+
+import java.time.LocalDateTime;
+
+public interface CommentEligibilityRepository extends JpaRepository<CommentEligibility, CommentEligibility.Key> {
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO comment_eligibility (user_id, item_id)" +
+            " SELECT DISTINCT b.booker_id, b.item_id FROM bookings AS b" +
+            " WHERE b.status = 'APPROVED'" +
+            " AND b.end_date >= ?1" +
+            " AND b.end_date < ?2" +
+            " AND NOT EXISTS (SELECT 1 FROM comment_eligibility AS e" +
+            " WHERE e.user_id = b.booker_id AND e.item_id = b.item_id)", nativeQuery = true)
+    int insertBookingsEndedBetween(LocalDateTime from, LocalDateTime to);
+
+    @Query(value = "SELECT indexed_until FROM comment_eligibility_watermark FOR UPDATE", nativeQuery = true)
+    LocalDateTime lockIndexedUntil();
+
+    @Modifying
+    @Query(value = "UPDATE comment_eligibility_watermark SET indexed_until = ?1", nativeQuery = true)
+    int updateIndexedUntil(LocalDateTime time);
+
+    /**
+     * Checks the stored pairs first and then every completed approved booking, archived ones included, regardless
+     * of the watermark: a booking approved after its end is never indexed.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM comment_eligibility AS e" +
+            " WHERE e.user_id = ?1 AND e.item_id = ?2)" +
+            " OR EXISTS (SELECT 1 FROM bookings AS b" +
+            " WHERE b.booker_id = ?1" +
+            " AND b.item_id = ?2" +
+            " AND b.status = 'APPROVED'" +
+            " AND b.end_date < ?3)" +
+            " OR EXISTS (SELECT 1 FROM bookings_archive AS b" +
+            " WHERE b.booker_id = ?1" +
+            " AND b.item_id = ?2" +
+            " AND b.status = 'APPROVED'" +
+            " AND b.end_date < ?3)", nativeQuery = true)
+    boolean isEligible(long userId, long itemId, LocalDateTime now);
+}
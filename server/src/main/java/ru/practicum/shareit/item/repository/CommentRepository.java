@@ -1,15 +1,43 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.entity.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("select c from Comment as c" +
             " join fetch c.author as a" +
-            " join c.item as i" +
-            " where i.id = ?1")
-    List<Comment> findAllByItemId(Long itemId);
+            " where c.item.id = ?1" +
+            " order by c.created desc, c.id desc")
+    List<Comment> findCommentsOfItem(long itemId, Pageable pageable);
+
+    /**
+     * Returns at most limit latest comments of every item. The comment after the latest ones is found per item
+     * through the (item_id, created, id) index, so only the returned comments are read.
+     */
+    @Query(value = "SELECT c.item_id AS \"itemId\", c.id AS \"id\", c.text AS \"text\", u.name AS \"authorName\"," +
+            " c.created AS \"created\"" +
+            " FROM (SELECT i.id AS item_id," +
+            " (SELECT l.created FROM comments AS l WHERE l.item_id = i.id" +
+            " ORDER BY l.created DESC, l.id DESC LIMIT 1 OFFSET ?2) AS cut_created," +
+            " (SELECT l.id FROM comments AS l WHERE l.item_id = i.id" +
+            " ORDER BY l.created DESC, l.id DESC LIMIT 1 OFFSET ?2) AS cut_id" +
+            " FROM items AS i" +
+            " WHERE i.id IN (?1)) AS b" +
+            " JOIN comments AS c ON c.item_id = b.item_id" +
+            " AND c.created >= COALESCE(b.cut_created, TIMESTAMP '1970-01-01 00:00:00')" +
+            " JOIN users AS u ON u.id = c.author_id" +
+            " WHERE b.cut_id IS NULL OR c.created > b.cut_created OR c.id > b.cut_id" +
+            " ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<CommentView> findLatestCommentsOfItems(Collection<Long> itemIds, int limit);
+
+    @Query("select c.item.id, count(c.id) from Comment as c" +
+            " where c.item.id in ?1" +
+            " group by c.item.id")
+    List<Object[]> countCommentsOfItems(Collection<Long> itemIds);
 }
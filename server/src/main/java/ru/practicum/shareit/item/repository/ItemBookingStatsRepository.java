@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.entity.ItemBookingStats;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingStatsRepository extends JpaRepository<ItemBookingStats, ItemBookingStats.Key> {
+    @Query("select s from ItemBookingStats as s" +
+            " where s.itemId in ?1" +
+            " and s.day >= ?2" +
+            " and s.day <= ?3")
+    List<ItemBookingStats> findStatsOfItems(Collection<Long> itemIds, LocalDate from, LocalDate to);
+
+    @Query("select s from ItemBookingStats as s" +
+            " where s.itemId in (select i.id from Item as i where i.owner.id = ?1)" +
+            " and s.day >= ?2" +
+            " and s.day <= ?3" +
+            " order by s.itemId, s.day")
+    List<ItemBookingStats> findStatsOfOwner(long ownerId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.entity.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select i.id from Item as i" +
+            " where not exists (select s.itemId from ItemBookingSummary as s" +
+            " where s.itemId = i.id" +
+            " and (s.refreshAt is null or s.refreshAt > ?1))" +
+            " order by i.id")
+    List<Long> findItemIdsWithStaleSummary(LocalDateTime now, Pageable pageable);
+}
@@ -1,24 +1,31 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.entity.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findById(long id);
 
-    Page<Item> findAllByOwnerIdOrderById(long ownerId, Pageable pageable);
-
-    @Query("select i from Item as i" +
-            " where i.available = true " +
-            " and (lower(i.name) like lower(concat('%', ?1, '%'))" +
-            " or lower(i.description) like lower(concat('%', ?1, '%')))")
-    Page<Item> findItemsByNameOrDescription(String text, Pageable pageable);
+    List<Item> findAllByOwnerIdOrderById(long ownerId, Pageable pageable);
 
     List<Item> findAllByRequestId(long requestId);
+
+    List<Item> findAllByAvailableTrue();
+
+    long countByAvailableTrue();
+
+    List<Item> findAllByUpdatedAtAfter(LocalDateTime time);
+
+    @Query(value = "SELECT id FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(long id);
+
+    @Query(value = "SELECT id FROM items WHERE id IN ?1 ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAllByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.repository.CommentEligibilityRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Users with completed approved bookings of items. The comment_eligibility table is filled as bookings end up to the
+ * watermark stored in comment_eligibility_watermark, pairs confirmed on this node are kept in memory as packed longs.
+ * Pairs missing from both are checked against the bookings, so a booking approved after its end still counts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentEligibilityIndex {
+    private static final long NOT_PACKED = -1;
+
+    private final CommentEligibilityRepository commentEligibilityRepository;
+    private final LongSet eligiblePairs = new LongSet();
+
+    public boolean isEligible(long userId, long itemId) {
+        long pair = pack(userId, itemId);
+        if (pair != NOT_PACKED && eligiblePairs.contains(pair)) {
+            return true;
+        }
+
+        boolean eligible = commentEligibilityRepository.isEligible(userId, itemId, LocalDateTime.now());
+        if (eligible && pair != NOT_PACKED) {
+            eligiblePairs.add(pair);
+        }
+
+        return eligible;
+    }
+
+    /**
+     * Indexes bookings ended since the stored watermark. The watermark row is locked, so runs of several nodes
+     * do not overlap.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.comment-eligibility.refresh-delay}")
+    public void indexEndedBookings() {
+        LocalDateTime from = commentEligibilityRepository.lockIndexedUntil();
+        LocalDateTime now = LocalDateTime.now();
+
+        int inserted = commentEligibilityRepository.insertBookingsEndedBetween(from, now);
+        commentEligibilityRepository.updateIndexedUntil(now);
+        log.debug("+ indexEndedBookings: {} pairs from {} to {}", inserted, from, now);
+    }
+
+    private static long pack(long userId, long itemId) {
+        if (userId >>> 31 != 0 || itemId >>> 32 != 0) {
+            return NOT_PACKED;
+        }
+
+        return userId << 32 | itemId;
+    }
+
+    private static class LongSet {
+        private long[] keys = newKeys(1024);
+        private int size;
+
+        synchronized boolean contains(long key) {
+            return keys[indexOf(keys, key)] == key;
+        }
+
+        synchronized void add(long key) {
+            int index = indexOf(keys, key);
+            if (keys[index] == key) {
+                return;
+            }
+
+            keys[index] = key;
+            if (++size * 2 > keys.length) {
+                long[] oldKeys = keys;
+                keys = newKeys(oldKeys.length * 2);
+                for (long oldKey : oldKeys) {
+                    if (oldKey != NOT_PACKED) {
+                        keys[indexOf(keys, oldKey)] = oldKey;
+                    }
+                }
+            }
+        }
+
+        private static int indexOf(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[index] != NOT_PACKED && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, NOT_PACKED);
+
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+import ru.practicum.shareit.item.entity.ItemBookingStats;
+import ru.practicum.shareit.item.repository.ItemBookingStatsRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.persistence.EntityManager;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Booking counters of items by day, changed together with bookings, so owner statistics are read from aggregates
+ * only. Day rows of an item are changed under the lock of the item row and flushed in JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingStatsService {
+    private static final Comparator<ItemBookingStats.Key> KEY_ORDER = Comparator
+            .comparingLong(ItemBookingStats.Key::getItemId)
+            .thenComparing(ItemBookingStats.Key::getDay);
+
+    private final ItemBookingStatsRepository itemBookingStatsRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public void countCreated(Collection<Booking> bookings) {
+        Map<ItemBookingStats.Key, ItemBookingStats> deltas = new TreeMap<>(KEY_ORDER);
+        for (Booking booking : bookings) {
+            ItemBookingStats delta = deltaOf(deltas, booking.getItem().getId(), booking.getStart().toLocalDate());
+            delta.setBookings(delta.getBookings() + 1);
+        }
+
+        apply(deltas);
+    }
+
+    @Transactional
+    public void countDecided(Collection<Booking> approvedBookings, Collection<Booking> rejectedBookings) {
+        Map<ItemBookingStats.Key, ItemBookingStats> deltas = new TreeMap<>(KEY_ORDER);
+        for (Booking booking : rejectedBookings) {
+            ItemBookingStats delta = deltaOf(deltas, booking.getItem().getId(), booking.getStart().toLocalDate());
+            delta.setRejected(delta.getRejected() + 1);
+        }
+        for (Booking booking : approvedBookings) {
+            long itemId = booking.getItem().getId();
+            ItemBookingStats delta = deltaOf(deltas, itemId, booking.getStart().toLocalDate());
+            delta.setApproved(delta.getApproved() + 1);
+
+            for (LocalDate day = booking.getStart().toLocalDate(); day.atStartOfDay().isBefore(booking.getEnd());
+                 day = day.plusDays(1)) {
+                LocalDateTime dayStart = day.atStartOfDay();
+                LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+                LocalDateTime start = booking.getStart().isAfter(dayStart) ? booking.getStart() : dayStart;
+                LocalDateTime end = booking.getEnd().isBefore(dayEnd) ? booking.getEnd() : dayEnd;
+                ItemBookingStats dayDelta = deltaOf(deltas, itemId, day);
+                dayDelta.setBookedMinutes(dayDelta.getBookedMinutes() + Duration.between(start, end).toMinutes());
+            }
+        }
+
+        apply(deltas);
+    }
+
+    /**
+     * Returns counters of items of the owner from day to day summed by DAY or WEEK buckets; weeks start on Monday.
+     */
+    public List<ItemStatsDto> findStatsOfOwner(long ownerId, String bucket, LocalDate from, LocalDate to) {
+        Map<ItemBookingStats.Key, ItemBookingStats> buckets = new LinkedHashMap<>();
+        for (ItemBookingStats stats : itemBookingStatsRepository.findStatsOfOwner(ownerId, from, to)) {
+            LocalDate start = "WEEK".equals(bucket)
+                    ? stats.getDay().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : stats.getDay();
+            ItemBookingStats sum = deltaOf(buckets, stats.getItemId(), start);
+            sum.setBookings(sum.getBookings() + stats.getBookings());
+            sum.setApproved(sum.getApproved() + stats.getApproved());
+            sum.setRejected(sum.getRejected() + stats.getRejected());
+            sum.setBookedMinutes(sum.getBookedMinutes() + stats.getBookedMinutes());
+        }
+
+        return buckets.values().stream()
+                .map(ItemBookingStatsService::toStatsDto)
+                .collect(Collectors.toList());
+    }
+
+    private void apply(Map<ItemBookingStats.Key, ItemBookingStats> deltas) {
+        log.debug("+ apply booking stats: {}", deltas.values());
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Set<Long> itemIds = deltas.keySet().stream()
+                .map(ItemBookingStats.Key::getItemId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        LocalDate from = deltas.keySet().stream()
+                .map(ItemBookingStats.Key::getDay)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDate to = deltas.keySet().stream()
+                .map(ItemBookingStats.Key::getDay)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+
+        // Items are locked in id order by one query, so concurrent writers neither deadlock nor insert one row twice.
+        itemRepository.lockAllByIdIn(itemIds);
+        Map<ItemBookingStats.Key, ItemBookingStats> counters = new HashMap<>();
+        itemBookingStatsRepository.findStatsOfItems(itemIds, from, to).forEach(stats ->
+                counters.put(new ItemBookingStats.Key(stats.getItemId(), stats.getDay()), stats));
+
+        for (Map.Entry<ItemBookingStats.Key, ItemBookingStats> entry : deltas.entrySet()) {
+            ItemBookingStats delta = entry.getValue();
+            ItemBookingStats stats = counters.get(entry.getKey());
+            if (stats == null) {
+                entityManager.persist(delta);
+                continue;
+            }
+
+            stats.setBookings(stats.getBookings() + delta.getBookings());
+            stats.setApproved(stats.getApproved() + delta.getApproved());
+            stats.setRejected(stats.getRejected() + delta.getRejected());
+            stats.setBookedMinutes(stats.getBookedMinutes() + delta.getBookedMinutes());
+        }
+    }
+
+    private static ItemBookingStats deltaOf(Map<ItemBookingStats.Key, ItemBookingStats> deltas, long itemId,
+                                            LocalDate day) {
+        return deltas.computeIfAbsent(new ItemBookingStats.Key(itemId, day), key -> ItemBookingStats.builder()
+                .itemId(itemId)
+                .day(day)
+                .build());
+    }
+
+    private static ItemStatsDto toStatsDto(ItemBookingStats stats) {
+        int decided = stats.getApproved() + stats.getRejected();
+
+        return ItemStatsDto.builder()
+                .itemId(stats.getItemId())
+                .start(stats.getDay())
+                .bookings(stats.getBookings())
+                .approved(stats.getApproved())
+                .rejected(stats.getRejected())
+                .bookedHours(stats.getBookedMinutes() / 60.0)
+                .approvalRatio(decided == 0 ? null : (double) stats.getApproved() / decided)
+                .build();
+    }
+}
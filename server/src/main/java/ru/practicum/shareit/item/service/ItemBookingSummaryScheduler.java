@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryScheduler {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Scheduled(fixedDelayString = "${shareit.item-booking-summary.refresh-delay}",
+            initialDelayString = "${shareit.item-booking-summary.refresh-delay}")
+    public void refreshStaleSummaries() {
+        List<Long> itemIds = itemBookingSummaryService.findItemIdsWithStaleSummary(BATCH_SIZE);
+        log.debug("+ refreshStaleSummaries: {}", itemIds.size());
+
+        itemIds.forEach(itemBookingSummaryService::refresh);
+    }
+}
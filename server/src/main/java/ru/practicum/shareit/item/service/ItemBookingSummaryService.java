@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Last and next approved bookings per item. A summary stays valid until refreshAt, the start of the nearest
+ * approved booking, so it is refreshed on approvals and by {@link ItemBookingSummaryScheduler} as time passes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryService {
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+
+    public ItemBookingSummary findSummary(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return itemBookingSummaryRepository.findById(itemId)
+                .filter(summary -> summary.getRefreshAt() == null || summary.getRefreshAt().isAfter(now))
+                .orElseGet(() -> compute(itemId, now));
+    }
+
+    /**
+     * Resolves summaries of all given items with at most three queries; missing and expired ones are computed by one
+     * windowed query over bookings of those items, and the archive is asked only for items without a last booking.
+     */
+    public Map<Long, ItemBookingSummary> findSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryRepository.findAllById(itemIds).stream()
+                .filter(summary -> summary.getRefreshAt() == null || summary.getRefreshAt().isAfter(now))
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        List<Long> staleItemIds = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (!summaries.containsKey(itemId)) {
+                staleItemIds.add(itemId);
+                summaries.put(itemId, ItemBookingSummary.builder().itemId(itemId).build());
+            }
+        }
+        if (!staleItemIds.isEmpty()) {
+            bookingRepository.findLastAndNextBookingsOfItems(staleItemIds, now).forEach(booking -> {
+                ItemBookingSummary summary = summaries.get(booking.getItemId());
+                if (booking.getPast()) {
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastBookerId(booking.getBookerId());
+                } else {
+                    summary.setNextBookingId(booking.getId());
+                    summary.setNextBookerId(booking.getBookerId());
+                }
+            });
+
+            List<Long> itemIdsWithoutLastBooking = staleItemIds.stream()
+                    .filter(itemId -> summaries.get(itemId).getLastBookingId() == null)
+                    .collect(Collectors.toList());
+            if (!itemIdsWithoutLastBooking.isEmpty()) {
+                archivedBookingRepository.findLastBookingsOfItems(itemIdsWithoutLastBooking).forEach(booking -> {
+                    ItemBookingSummary summary = summaries.get(booking.getItemId());
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastBookerId(booking.getBookerId());
+                });
+            }
+        }
+
+        return summaries;
+    }
+
+    public List<Long> findItemIdsWithStaleSummary(int limit) {
+        return itemBookingSummaryRepository.findItemIdsWithStaleSummary(LocalDateTime.now(),
+                PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public void refresh(long itemId) {
+        log.debug("+ refresh booking summary of item: {}", itemId);
+
+        // Waits for a concurrent approval of the item, so its booking is seen here.
+        itemRepository.lockById(itemId);
+        itemBookingSummaryRepository.save(compute(itemId, LocalDateTime.now()));
+    }
+
+    public static BookingItemDto lastBooking(ItemBookingSummary summary) {
+        return summary.getLastBookingId() == null ? null : new BookingItemDto(summary.getLastBookingId(),
+                summary.getLastBookerId());
+    }
+
+    public static BookingItemDto nextBooking(ItemBookingSummary summary) {
+        return summary.getNextBookingId() == null ? null : new BookingItemDto(summary.getNextBookingId(),
+                summary.getNextBookerId());
+    }
+
+    private ItemBookingSummary compute(long itemId, LocalDateTime now) {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(itemId)
+                .refreshAt(bookingRepository.findNearestBookingStartOfItem(itemId, BookingStatus.APPROVED, now)
+                        .orElse(null))
+                .build();
+
+        bookingRepository.findPastBookingsOfItem(itemId, BookingStatus.APPROVED, now, FIRST).stream()
+                .findFirst()
+                .ifPresentOrElse(booking -> {
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastBookerId(booking.getBookerId());
+                }, () -> archivedBookingRepository.findLastBookingsOfItems(List.of(itemId)).forEach(booking -> {
+                    summary.setLastBookingId(booking.getId());
+                    summary.setLastBookerId(booking.getBookerId());
+                }));
+        bookingRepository.findFutureBookingsOfItem(itemId, BookingStatus.APPROVED, now, FIRST).stream()
+                .findFirst()
+                .ifPresent(booking -> {
+                    summary.setNextBookingId(booking.getId());
+                    summary.setNextBookerId(booking.getBookerId());
+                });
+
+        return summary;
+    }
+}
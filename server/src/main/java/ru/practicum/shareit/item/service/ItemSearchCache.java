@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * LRU cache of item search pages keyed by query tokens and page. A change of an item drops only pages of queries
+ * whose every token is a prefix of a token of the old or the new text of the item.
+ */
+@Component
+public class ItemSearchCache {
+    private final Map<Key, List<ItemResponseDto>> pages;
+    private final Map<String, Set<Key>> keysByToken = new HashMap<>();
+    private long version;
+
+    public ItemSearchCache(@Value("${shareit.item-search-cache.size}") int maxSize) {
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ItemResponseDto>> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+
+                unregister(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public synchronized List<ItemResponseDto> get(Key key) {
+        return pages.get(key);
+    }
+
+    /**
+     * Returns the version to pass to {@link #put}, it has to be taken before the page is read from the index.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Caches the page unless some item changed since the version was taken.
+     */
+    public synchronized void put(Key key, List<ItemResponseDto> page, long version) {
+        if (this.version != version) {
+            return;
+        }
+
+        if (pages.put(key, List.copyOf(page)) == null) {
+            key.tokens.forEach(token -> keysByToken.computeIfAbsent(token, tokenKey -> new HashSet<>()).add(key));
+        }
+    }
+
+    public synchronized void invalidate(Collection<String> oldTokens, Collection<String> newTokens) {
+        version++;
+        removeMatching(oldTokens);
+        removeMatching(newTokens);
+    }
+
+    public synchronized void clear() {
+        version++;
+        pages.clear();
+        keysByToken.clear();
+    }
+
+    private void removeMatching(Collection<String> itemTokens) {
+        Set<Key> candidates = new HashSet<>();
+        for (String itemToken : itemTokens) {
+            for (int length = 1; length <= itemToken.length(); length++) {
+                candidates.addAll(keysByToken.getOrDefault(itemToken.substring(0, length), Set.of()));
+            }
+        }
+
+        for (Key candidate : candidates) {
+            if (candidate.matches(itemTokens)) {
+                pages.remove(candidate);
+                unregister(candidate);
+            }
+        }
+    }
+
+    private void unregister(Key key) {
+        key.tokens.forEach(token -> keysByToken.computeIfPresent(token, (tokenKey, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }));
+    }
+
+    @EqualsAndHashCode
+    public static class Key {
+        private final List<String> tokens;
+        private final long offset;
+        private final int limit;
+
+        public Key(Collection<String> tokens, long offset, int limit) {
+            this.tokens = new ArrayList<>(new TreeSet<>(tokens));
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        boolean matches(Collection<String> itemTokens) {
+            for (String token : tokens) {
+                if (itemTokens.stream().noneMatch(itemToken -> itemToken.startsWith(token))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
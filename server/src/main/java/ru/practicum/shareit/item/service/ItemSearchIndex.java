@@ -0,0 +1,730 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of available items: every token of the name and the description maps to a sorted list of item ids.
+ * Search matches query tokens as prefixes of indexed tokens and intersects their postings without reading the
+ * database. The index is built before the server accepts requests, changes made on this node are applied by
+ * {@link ItemServiceDbImpl} at once and changes made on other nodes by a periodic refresh. Pages of search are cached
+ * in {@link ItemSearchCache} and dropped from it by changes of matching items.
+ * <p>
+ * Relevance is scored with BM25 over both fields, a match in the name weighs twice as much as a
+ * match in the description.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final Comparator<ScoredDocument> RELEVANCE_ORDER = Comparator
+            .comparingDouble((ScoredDocument scored) -> scored.score).reversed()
+            .thenComparingLong(scored -> scored.document.id);
+    private static final Comparator<Map.Entry<String, Integer>> SUGGESTION_ORDER = Comparator
+            .comparingInt((Map.Entry<String, Integer> token) -> token.getValue()).reversed()
+            .thenComparing(Map.Entry::getKey);
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchCache itemSearchCache;
+    private final Duration refreshOverlap;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Contents contents = new Contents();
+    private List<Consumer<Contents>> pendingChanges;
+    private LocalDateTime refreshedUntil;
+
+    public ItemSearchIndex(ItemRepository itemRepository, ItemSearchCache itemSearchCache,
+                           @Value("${shareit.item-search-index.refresh-overlap}") Duration refreshOverlap) {
+        this.itemRepository = itemRepository;
+        this.itemSearchCache = itemSearchCache;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    public List<ItemResponseDto> search(String text, long offset, int limit) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ItemSearchCache.Key key = new ItemSearchCache.Key(queryTokens, offset, limit);
+        List<ItemResponseDto> cachedItems = itemSearchCache.get(key);
+        if (cachedItems != null) {
+            return cachedItems;
+        }
+        long cacheVersion = itemSearchCache.version();
+
+        List<ItemResponseDto> items = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long[] ids = contents.search(queryTokens);
+            for (long i = offset; i < ids.length && items.size() < limit; i++) {
+                items.add(contents.documents.get(ids[(int) i]).toItemDto());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        itemSearchCache.put(key, items, cacheVersion);
+
+        return items;
+    }
+
+    /**
+     * Returns items ordered by relevance to the text.
+     */
+    public List<ItemResponseDto> searchByRelevance(String text, long offset, int limit) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            double averageNameLength = contents.averageLength(contents.totalNameLength);
+            double averageDescriptionLength = contents.averageLength(contents.totalDescriptionLength);
+
+            return top(contents.search(queryTokens), offset, limit, document -> contents.score(document, queryTokens,
+                    averageNameLength, averageDescriptionLength));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns items having, for every query token, a token within a small edit distance of it: none for tokens of
+     * one or two characters, one for three characters and two for longer ones. Similar tokens are looked up by
+     * shared trigrams and verified by bounded Levenshtein distance. Items are ordered by total distance.
+     */
+    public List<ItemResponseDto> searchFuzzy(String text, long offset, int limit) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<String, Integer>> similarTokens = new ArrayList<>();
+            queryTokens.forEach(queryToken -> similarTokens.add(contents.similarTokens(queryToken)));
+
+            return top(contents.searchSimilar(similarTokens), offset, limit,
+                    document -> -document.distance(similarTokens));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes the last token of the prefix with tokens of names of available items, the ones occurring in more
+     * names first.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        List<String> prefixTokens = tokens(prefix);
+        if (prefixTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String lastToken = prefixTokens.get(prefixTokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(limit, SUGGESTION_ORDER.reversed());
+            for (Map.Entry<String, Integer> token : contents.nameTokens
+                    .subMap(lastToken, true, lastToken + Character.MAX_VALUE, false).entrySet()) {
+                if (heap.size() < limit) {
+                    heap.add(token);
+                } else if (SUGGESTION_ORDER.compare(token, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(token);
+                }
+            }
+
+            List<Map.Entry<String, Integer>> best = new ArrayList<>(heap);
+            best.sort(SUGGESTION_ORDER);
+            List<ItemSuggestionDto> suggestions = new ArrayList<>();
+            best.forEach(token -> suggestions.add(new ItemSuggestionDto(token.getKey(), token.getValue())));
+
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the item if it is available and removes it from the index otherwise. Nothing is changed and no
+     * cached page is dropped if the index already holds the same text of the item.
+     */
+    public void index(Item item) {
+        Document document = new Document(item);
+        lock.writeLock().lock();
+        try {
+            Document indexedDocument = contents.documents.get(document.id);
+            if (indexedDocument == null ? !document.available : document.sameAs(indexedDocument)) {
+                return;
+            }
+            change(indexed -> indexed.put(document));
+            itemSearchCache.invalidate(indexedDocument == null ? List.of() : Arrays.asList(indexedDocument.tokens),
+                    document.available ? Arrays.asList(document.tokens) : List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeItemsOfOwner(long ownerId) {
+        lock.writeLock().lock();
+        try {
+            change(indexed -> indexed.removeOwner(ownerId));
+            itemSearchCache.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes items changed since the previous refresh, so changes made on other nodes reach this one. Items
+     * changed shortly before it are read again, as clocks of nodes differ and a transaction may commit after a later
+     * one. Deleted items leave no change behind, so the index is rebuilt if it holds more items than are available.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item-search-index.refresh-delay}",
+            initialDelayString = "${shareit.item-search-index.refresh-delay}")
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Item> changedItems = itemRepository.findAllByUpdatedAtAfter(refreshedUntil.minus(refreshOverlap));
+        changedItems.forEach(this::index);
+        refreshedUntil = startedAt;
+
+        long availableItems = itemRepository.countByAvailableTrue();
+        long indexedItems;
+        lock.readLock().lock();
+        try {
+            indexedItems = contents.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        log.debug("+ refresh: {} changed items, {} indexed, {} available", changedItems.size(), indexedItems,
+                availableItems);
+        if (indexedItems > availableItems) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds the index while the context starts, before the web server is started, so search never runs against
+     * an empty index.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Builds the index from the database and replaces the current one. Changes made while items are read are
+     * applied to the new index before it is published.
+     */
+    public synchronized ItemSearchIndexDto rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        Contents rebuiltContents = new Contents();
+        boolean loaded = false;
+        try {
+            itemRepository.findAllByAvailableTrue().forEach(item -> rebuiltContents.put(new Document(item)));
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    pendingChanges.forEach(change -> change.accept(rebuiltContents));
+                    contents = rebuiltContents;
+                    refreshedUntil = startedAt;
+                    itemSearchCache.clear();
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Item search index is built: {} items, {} tokens", rebuiltContents.documents.size(),
+                rebuiltContents.postings.size());
+
+        return ItemSearchIndexDto.builder()
+                .items(rebuiltContents.documents.size())
+                .tokens(rebuiltContents.postings.size())
+                .build();
+    }
+
+    /**
+     * Keeps only offset + limit best scored documents in a bounded heap, so other matches are scored but never
+     * sorted or copied.
+     */
+    private List<ItemResponseDto> top(long[] ids, long offset, int limit, ToDoubleFunction<Document> scorer) {
+        if (offset >= ids.length) {
+            return new ArrayList<>();
+        }
+
+        int top = (int) Math.min(ids.length, offset + limit);
+        PriorityQueue<ScoredDocument> heap = new PriorityQueue<>(top, RELEVANCE_ORDER.reversed());
+        for (long id : ids) {
+            Document document = contents.documents.get(id);
+            ScoredDocument scored = new ScoredDocument(document, scorer.applyAsDouble(document));
+            if (heap.size() < top) {
+                heap.add(scored);
+            } else if (RELEVANCE_ORDER.compare(scored, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        List<ScoredDocument> best = new ArrayList<>(heap);
+        best.sort(RELEVANCE_ORDER);
+        List<ItemResponseDto> items = new ArrayList<>();
+        for (int i = (int) offset; i < best.size(); i++) {
+            items.add(best.get(i).document.toItemDto());
+        }
+
+        return items;
+    }
+
+    private void change(Consumer<Contents> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(contents);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        return new LinkedHashSet<>(tokens(text));
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    static Set<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+
+        return trigrams;
+    }
+
+    /**
+     * Returns Levenshtein distance between the strings or maxDistance + 1 if it is greater than maxDistance.
+     */
+    static int distance(String first, String second, int maxDistance) {
+        if (Math.abs(first.length() - second.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] row = previous;
+            previous = current;
+            current = row;
+        }
+
+        return Math.min(previous[second.length()], maxDistance + 1);
+    }
+
+    private static class Contents {
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Integer> nameTokens = new TreeMap<>();
+        private final Map<String, Set<String>> trigramTokens = new HashMap<>();
+        private final Map<Integer, Set<String>> lengthTokens = new HashMap<>();
+        private long totalNameLength;
+        private long totalDescriptionLength;
+
+        void put(Document document) {
+            remove(document.id);
+            if (!document.available) {
+                return;
+            }
+
+            documents.put(document.id, document);
+            totalNameLength += document.nameLength;
+            totalDescriptionLength += document.descriptionLength;
+            for (int i = 0; i < document.tokens.length; i++) {
+                String token = document.tokens[i];
+                Postings tokenPostings = postings.get(token);
+                if (tokenPostings == null) {
+                    tokenPostings = new Postings();
+                    postings.put(token, tokenPostings);
+                    trigrams(token).forEach(trigram -> trigramTokens
+                            .computeIfAbsent(trigram, key -> new HashSet<>()).add(token));
+                    lengthTokens.computeIfAbsent(token.length(), key -> new HashSet<>()).add(token);
+                }
+                tokenPostings.add(document.id);
+                if (document.nameFrequencies[i] > 0) {
+                    nameTokens.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+
+        void removeOwner(long ownerId) {
+            List<Long> ids = new ArrayList<>();
+            documents.values().forEach(document -> {
+                if (document.ownerId == ownerId) {
+                    ids.add(document.id);
+                }
+            });
+            ids.forEach(this::remove);
+        }
+
+        void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+
+            totalNameLength -= document.nameLength;
+            totalDescriptionLength -= document.descriptionLength;
+            for (int i = 0; i < document.tokens.length; i++) {
+                String token = document.tokens[i];
+                Postings tokenPostings = postings.get(token);
+                tokenPostings.remove(id);
+                if (tokenPostings.size == 0) {
+                    postings.remove(token);
+                    trigrams(token).forEach(trigram -> trigramTokens.computeIfPresent(trigram, (key, tokens) -> {
+                        tokens.remove(token);
+                        return tokens.isEmpty() ? null : tokens;
+                    }));
+                    lengthTokens.computeIfPresent(token.length(), (key, tokens) -> {
+                        tokens.remove(token);
+                        return tokens.isEmpty() ? null : tokens;
+                    });
+                }
+                if (document.nameFrequencies[i] > 0) {
+                    nameTokens.computeIfPresent(token, (key, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        }
+
+        long[] search(Collection<String> queryTokens) {
+            List<Collection<Postings>> matches = new ArrayList<>();
+            queryTokens.forEach(queryToken -> matches.add(postings.subMap(queryToken, true,
+                    queryToken + Character.MAX_VALUE, false).values()));
+
+            return intersectAll(matches);
+        }
+
+        long[] searchSimilar(List<Map<String, Integer>> similarTokens) {
+            List<Collection<Postings>> matches = new ArrayList<>();
+            for (Map<String, Integer> tokens : similarTokens) {
+                List<Postings> tokenPostings = new ArrayList<>();
+                tokens.keySet().forEach(token -> tokenPostings.add(postings.get(token)));
+                matches.add(tokenPostings);
+            }
+
+            return intersectAll(matches);
+        }
+
+        /**
+         * Returns indexed tokens similar to the query token with their distances. Only tokens sharing enough
+         * trigrams with it are verified: an edit changes at most three trigrams. Short tokens may share no trigram
+         * with a token within the distance, so for them every indexed token of a close enough length is verified.
+         */
+        Map<String, Integer> similarTokens(String queryToken) {
+            int maxDistance = queryToken.length() <= 2 ? 0 : queryToken.length() == 3 ? 1 : 2;
+            Map<String, Integer> similarTokens = new HashMap<>();
+            if (maxDistance == 0) {
+                if (postings.containsKey(queryToken)) {
+                    similarTokens.put(queryToken, 0);
+                }
+                return similarTokens;
+            }
+
+            Set<String> queryTrigrams = trigrams(queryToken);
+            int minSharedTrigrams = queryTrigrams.size() - 3 * maxDistance;
+            if (minSharedTrigrams <= 0) {
+                for (int length = queryToken.length() - maxDistance; length <= queryToken.length() + maxDistance;
+                     length++) {
+                    lengthTokens.getOrDefault(length, Set.of())
+                            .forEach(token -> putIfSimilar(similarTokens, queryToken, token, maxDistance));
+                }
+                return similarTokens;
+            }
+
+            Map<String, Integer> sharedTrigrams = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                trigramTokens.getOrDefault(trigram, Set.of())
+                        .forEach(token -> sharedTrigrams.merge(token, 1, Integer::sum));
+            }
+            sharedTrigrams.forEach((token, shared) -> {
+                if (shared >= minSharedTrigrams) {
+                    putIfSimilar(similarTokens, queryToken, token, maxDistance);
+                }
+            });
+
+            return similarTokens;
+        }
+
+        private static void putIfSimilar(Map<String, Integer> similarTokens, String queryToken, String token,
+                                         int maxDistance) {
+            int distance = distance(queryToken, token, maxDistance);
+            if (distance <= maxDistance) {
+                similarTokens.put(token, distance);
+            }
+        }
+
+        double averageLength(long totalLength) {
+            return documents.isEmpty() ? 1 : Math.max(1, (double) totalLength / documents.size());
+        }
+
+        double score(Document document, Collection<String> queryTokens, double averageNameLength,
+                     double averageDescriptionLength) {
+            double nameNorm = 1 - B + B * document.nameLength / averageNameLength;
+            double descriptionNorm = 1 - B + B * document.descriptionLength / averageDescriptionLength;
+            double score = 0;
+            for (String queryToken : queryTokens) {
+                for (int i = document.firstTokenWithPrefix(queryToken); i < document.tokens.length
+                        && document.tokens[i].startsWith(queryToken); i++) {
+                    int frequency = postings.get(document.tokens[i]).size;
+                    double idf = Math.log(1 + (documents.size() - frequency + 0.5) / (frequency + 0.5));
+                    double tf = NAME_WEIGHT * document.nameFrequencies[i] / nameNorm
+                            + document.descriptionFrequencies[i] / descriptionNorm;
+                    score += idf * tf * (K1 + 1) / (tf + K1);
+                }
+            }
+
+            return score;
+        }
+
+        private long[] intersectAll(List<Collection<Postings>> matches) {
+            long[] ids = null;
+            for (Collection<Postings> match : matches) {
+                long[] matchIds = union(match);
+                ids = ids == null ? matchIds : intersect(ids, matchIds);
+                if (ids.length == 0) {
+                    break;
+                }
+            }
+
+            return ids;
+        }
+
+        private static long[] union(Collection<Postings> matches) {
+            if (matches.size() == 1) {
+                Postings single = matches.iterator().next();
+                return Arrays.copyOf(single.ids, single.size);
+            }
+
+            int total = 0;
+            for (Postings match : matches) {
+                total += match.size;
+            }
+            long[] ids = new long[total];
+            int size = 0;
+            for (Postings match : matches) {
+                System.arraycopy(match.ids, 0, ids, size, match.size);
+                size += match.size;
+            }
+            Arrays.sort(ids);
+
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+
+            return Arrays.copyOf(ids, distinct);
+        }
+
+        private static long[] intersect(long[] first, long[] second) {
+            long[] ids = new long[Math.min(first.length, second.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < first.length && j < second.length) {
+                if (first[i] < second[j]) {
+                    i++;
+                } else if (first[i] > second[j]) {
+                    j++;
+                } else {
+                    ids[size++] = first[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    private static class ScoredDocument {
+        private final Document document;
+        private final double score;
+
+        ScoredDocument(Document document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    private static class Document {
+        private final long id;
+        private final long ownerId;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final boolean available;
+        private final String[] tokens;
+        private final int[] nameFrequencies;
+        private final int[] descriptionFrequencies;
+        private final int nameLength;
+        private final int descriptionLength;
+
+        Document(Item item) {
+            this.id = item.getId();
+            this.ownerId = item.getOwner().getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.requestId = item.getRequestId();
+            this.available = item.isAvailable();
+
+            List<String> nameTokens = tokens(item.getName());
+            List<String> descriptionTokens = tokens(item.getDescription());
+            NavigableMap<String, int[]> frequencies = new TreeMap<>();
+            nameTokens.forEach(token -> frequencies.computeIfAbsent(token, key -> new int[2])[0]++);
+            descriptionTokens.forEach(token -> frequencies.computeIfAbsent(token, key -> new int[2])[1]++);
+
+            this.tokens = frequencies.keySet().toArray(new String[0]);
+            this.nameFrequencies = new int[tokens.length];
+            this.descriptionFrequencies = new int[tokens.length];
+            int i = 0;
+            for (int[] tokenFrequencies : frequencies.values()) {
+                nameFrequencies[i] = tokenFrequencies[0];
+                descriptionFrequencies[i++] = tokenFrequencies[1];
+            }
+            this.nameLength = nameTokens.size();
+            this.descriptionLength = descriptionTokens.size();
+        }
+
+        int distance(List<Map<String, Integer>> similarTokens) {
+            int distance = 0;
+            for (Map<String, Integer> tokens : similarTokens) {
+                int tokenDistance = Integer.MAX_VALUE;
+                for (String token : this.tokens) {
+                    tokenDistance = Math.min(tokenDistance, tokens.getOrDefault(token, Integer.MAX_VALUE));
+                }
+                distance += tokenDistance;
+            }
+
+            return distance;
+        }
+
+        boolean sameAs(Document other) {
+            return ownerId == other.ownerId && available == other.available && name.equals(other.name)
+                    && description.equals(other.description) && Objects.equals(requestId, other.requestId);
+        }
+
+        int firstTokenWithPrefix(String prefix) {
+            int index = Arrays.binarySearch(tokens, prefix);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        ItemResponseDto toItemDto() {
+            return ItemResponseDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.entity.Item;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,6 +13,12 @@ public interface ItemService {
 
     Item checkItem(long id);
 
+    void lockItem(long id);
+
+    ItemAvailabilityDto findItemAvailability(long userId, long id, LocalDateTime from, LocalDateTime to);
+
+    List<ItemStatsDto> findItemStats(long userId, String bucket, LocalDate from, LocalDate to);
+
     List<ItemExtendedResponseDto> findAllItems(long userId, int from, int size);
 
     ItemResponseDto createNewItem(long userId, ItemCreateUpdateDto itemDto);
@@ -19,5 +27,15 @@ public interface ItemService {
 
     List<ItemResponseDto> searchItem(long userId, String text, int from, int size);
 
+    List<ItemResponseDto> searchItemByRelevance(long userId, String text, int from, int size);
+
+    List<ItemResponseDto> searchItemFuzzy(long userId, String text, int from, int size);
+
+    List<ItemSuggestionDto> suggestItemNames(String prefix, int size);
+
+    ItemSearchIndexDto rebuildSearchIndex();
+
+    List<CommentResponseDto> findItemComments(long userId, long itemId, int from, int size);
+
     CommentResponseDto createNewComment(long userId, long itemId, CommentCreateDto commentDto);
 }
@@ -3,10 +3,9 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.exception.RequestValidationException;
@@ -15,15 +14,20 @@ import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.dto.ItemExtendedResponseDto;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.entity.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Primary
@@ -31,12 +35,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceDbImpl implements ItemService {
+    private static final int LATEST_COMMENTS = 10;
+    private static final int DEFAULT_STATS_DAYS = 30;
+
     private final ItemRepository itemRepository;
-    private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemMapper itemMapper;
     private final ItemRequestService itemRequestService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final CommentEligibilityIndex commentEligibilityIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingStatsService itemBookingStatsService;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     public ItemExtendedResponseDto findItem(long userId, long id) {
@@ -54,20 +65,99 @@ public class ItemServiceDbImpl implements ItemService {
         return itemDto;
     }
 
+    /**
+     * Splits the period from - to into free and busy periods of the item. Busy periods are merged periods of WAITING
+     * and APPROVED bookings, the part of the period before the current moment is not reported.
+     */
+    @Override
+    public ItemAvailabilityDto findItemAvailability(long userId, long id, LocalDateTime from, LocalDateTime to) {
+        userService.checkUser(userId);
+        checkItem(id);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        List<BookingPeriodDto> free = new ArrayList<>();
+        List<BookingPeriodDto> busy = new ArrayList<>();
+        if (start.isBefore(to)) {
+            LocalDateTime freeStart = start;
+            for (BookingPeriodDto period : bookingIntervalIndex.findReservedPeriods(id, start, to)) {
+                LocalDateTime busyStart = period.getStart().isBefore(start) ? start : period.getStart();
+                LocalDateTime busyEnd = period.getEnd().isAfter(to) ? to : period.getEnd();
+                if (busy.isEmpty() || busyStart.isAfter(freeStart)) {
+                    if (busyStart.isAfter(freeStart)) {
+                        free.add(new BookingPeriodDto(freeStart, busyStart));
+                    }
+                    busy.add(new BookingPeriodDto(busyStart, busyEnd));
+                } else if (busyEnd.isAfter(freeStart)) {
+                    busy.get(busy.size() - 1).setEnd(busyEnd);
+                }
+                freeStart = busy.get(busy.size() - 1).getEnd();
+            }
+            if (freeStart.isBefore(to)) {
+                free.add(new BookingPeriodDto(freeStart, to));
+            }
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(id)
+                .from(from)
+                .to(to)
+                .free(free)
+                .busy(busy)
+                .build();
+    }
+
     @Override
     public Item checkItem(long id) {
         return itemRepository.findById(id).orElseThrow(() ->
                 new IdNotFoundException(String.format("Item with id %s not exist", id)));
     }
 
+    @Override
+    public void lockItem(long id) {
+        itemRepository.lockById(id).orElseThrow(() ->
+                new IdNotFoundException(String.format("Item with id %s not exist", id)));
+    }
+
+    /**
+     * Returns booking counters of items of the user by DAY or WEEK; the last DEFAULT_STATS_DAYS days are reported by
+     * default, as in the gateway.
+     */
+    @Override
+    public List<ItemStatsDto> findItemStats(long userId, String bucket, LocalDate from, LocalDate to) {
+        userService.checkUser(userId);
+
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_STATS_DAYS - 1) : from;
+
+        return itemBookingStatsService.findStatsOfOwner(userId, bucket, start, end);
+    }
+
     @Override
     public List<ItemExtendedResponseDto> findAllItems(long userId, int from, int size) {
         long ownerId = userService.checkUser(userId).getId();
 
-        return itemRepository.findAllByOwnerIdOrderById(ownerId, PageRequest.of(from, size)).stream()
-                .map(itemMapper::itemToExtendedItemForResponseDto)
-                .peek(this::addBookings)
-                .peek(this::addComments)
+        List<Item> items = itemRepository.findAllByOwnerIdOrderById(ownerId, new OffsetLimitPageable(from, size));
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findSummaries(itemIds);
+        Map<Long, List<CommentView>> comments = findLatestComments(itemIds);
+        Map<Long, Long> commentsCounts = countComments(itemIds);
+
+        return items.stream()
+                .map(item -> {
+                    ItemExtendedResponseDto itemDto = itemMapper.itemToExtendedItemForResponseDto(item);
+                    itemDto.setLastBooking(ItemBookingSummaryService.lastBooking(summaries.get(item.getId())));
+                    itemDto.setNextBooking(ItemBookingSummaryService.nextBooking(summaries.get(item.getId())));
+                    setComments(itemDto, comments.get(item.getId()), commentsCounts.get(item.getId()));
+
+                    return itemDto;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -81,8 +171,10 @@ public class ItemServiceDbImpl implements ItemService {
 
         Item item = itemMapper.itemForRequestDtoToItem(itemDto);
         item.setOwner(userService.checkUser(userId));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
 
-        return itemMapper.itemToItemForResponseDto(itemRepository.save(item));
+        return itemMapper.itemToItemForResponseDto(savedItem);
     }
 
     @Override
@@ -106,8 +198,10 @@ public class ItemServiceDbImpl implements ItemService {
             itemRequestService.checkItemRequest(itemDto.getRequestId());
             targetItem.setRequestId(itemDto.getRequestId());
         }
+        Item savedItem = itemRepository.save(targetItem);
+        itemSearchIndex.index(savedItem);
 
-        return itemMapper.itemToItemForResponseDto(itemRepository.save(targetItem));
+        return itemMapper.itemToItemForResponseDto(savedItem);
     }
 
     @Override
@@ -118,8 +212,45 @@ public class ItemServiceDbImpl implements ItemService {
             return new ArrayList<>();
         }
 
-        return itemRepository.findItemsByNameOrDescription(text, PageRequest.of(from, size)).stream()
-                .map(itemMapper::itemToItemForResponseDto)
+        return itemSearchIndex.search(text, from, size);
+    }
+
+    @Override
+    public List<ItemResponseDto> searchItemByRelevance(long userId, String text, int from, int size) {
+        userService.checkUser(userId);
+
+        return itemSearchIndex.searchByRelevance(text, from, size);
+    }
+
+    @Override
+    public List<ItemResponseDto> searchItemFuzzy(long userId, String text, int from, int size) {
+        userService.checkUser(userId);
+
+        return itemSearchIndex.searchFuzzy(text, from, size);
+    }
+
+    /**
+     * Answers from the search index only, without checking the user, as it is called on every keystroke.
+     */
+    @Override
+    public List<ItemSuggestionDto> suggestItemNames(String prefix, int size) {
+        return itemSearchIndex.suggest(prefix, size);
+    }
+
+    @Override
+    public ItemSearchIndexDto rebuildSearchIndex() {
+        log.debug("+ rebuildSearchIndex");
+
+        return itemSearchIndex.rebuild();
+    }
+
+    @Override
+    public List<CommentResponseDto> findItemComments(long userId, long itemId, int from, int size) {
+        userService.checkUser(userId);
+        checkItem(itemId);
+
+        return commentRepository.findCommentsOfItem(itemId, new OffsetLimitPageable(from, size)).stream()
+                .map(comment -> itemMapper.commentToCommentForResponseDto(comment, comment.getAuthor()))
                 .collect(Collectors.toList());
     }
 
@@ -145,24 +276,44 @@ public class ItemServiceDbImpl implements ItemService {
     }
 
     private void validateAuthor(long userId, long itemId) {
-        if (bookingRepository.findCountBookingsOfUser(userId, itemId) == 0) {
+        if (!commentEligibilityIndex.isEligible(userId, itemId)) {
             throw new RequestValidationException(String.format("User %s does not have completed bookings of" +
                     " item %s", userId, itemId));
         }
     }
 
     private void addBookings(ItemExtendedResponseDto itemDto) {
-        List<BookingItemDto> pastBookings = bookingRepository.findPastBookingsOfItem(itemDto.getId());
-        itemDto.setLastBooking(pastBookings.isEmpty() ? null : pastBookings.get(0));
-
-        List<BookingItemDto> futureBookings = bookingRepository.findFutureBookingsOfItem(itemDto.getId());
-        itemDto.setNextBooking(futureBookings.isEmpty() ? null : futureBookings.get(0));
+        ItemBookingSummary summary = itemBookingSummaryService.findSummary(itemDto.getId());
+        itemDto.setLastBooking(ItemBookingSummaryService.lastBooking(summary));
+        itemDto.setNextBooking(ItemBookingSummaryService.nextBooking(summary));
     }
 
     private void addComments(ItemExtendedResponseDto itemDto) {
-        List<CommentResponseDto> comments = commentRepository.findAllByItemId(itemDto.getId()).stream()
-                .map(comment -> itemMapper.commentToCommentForResponseDto(comment, comment.getAuthor()))
-                .collect(Collectors.toList());
-        itemDto.setComments(comments);
+        List<Long> itemIds = List.of(itemDto.getId());
+        setComments(itemDto, findLatestComments(itemIds).get(itemDto.getId()),
+                countComments(itemIds).get(itemDto.getId()));
+    }
+
+    private Map<Long, List<CommentView>> findLatestComments(Collection<Long> itemIds) {
+        return commentRepository.findLatestCommentsOfItems(itemIds, LATEST_COMMENTS).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
+    }
+
+    private Map<Long, Long> countComments(Collection<Long> itemIds) {
+        return commentRepository.countCommentsOfItems(itemIds).stream()
+                .collect(Collectors.toMap(row -> ((Number) row[0]).longValue(),
+                        row -> ((Number) row[1]).longValue()));
+    }
+
+    private void setComments(ItemExtendedResponseDto itemDto, List<CommentView> comments, Long commentsCount) {
+        if (comments == null) {
+            itemDto.setComments(new ArrayList<>());
+            return;
+        }
+
+        itemDto.setComments(comments.stream()
+                .map(itemMapper::commentViewToCommentForResponseDto)
+                .collect(Collectors.toList()));
+        itemDto.setCommentsCount(commentsCount);
     }
 }
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -16,7 +15,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
             " join ir.requester as r" +
             " where not (r.id = ?1)" +
             " order by ir.created desc")
-    Page<ItemRequest> findAllFromOtherUsers(long userId, Pageable pageable);
+    List<ItemRequest> findAllFromOtherUsers(long userId, Pageable pageable);
 
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long userId);
 }
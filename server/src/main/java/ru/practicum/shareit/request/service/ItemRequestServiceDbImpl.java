@@ -2,12 +2,12 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestExtendedResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -64,7 +64,7 @@ public class ItemRequestServiceDbImpl implements ItemRequestService {
     public List<ItemRequestExtendedResponseDto> findAllItemRequests(long userId, int from, int size) {
         userService.checkUser(userId);
 
-        return itemRequestRepository.findAllFromOtherUsers(userId, PageRequest.of(from, size)).stream()
+        return itemRequestRepository.findAllFromOtherUsers(userId, new OffsetLimitPageable(from, size)).stream()
                 .map(itemRequestMapper::itemRequestToExtendedItemRequestForResponseDto)
                 .peek(this::addItems)
                 .collect(Collectors.toList());
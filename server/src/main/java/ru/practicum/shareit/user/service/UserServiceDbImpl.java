@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.IdNotFoundException;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserCreateUpdateDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.entity.User;
@@ -22,6 +23,7 @@ import java.util.stream.Collectors;
 public class UserServiceDbImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     public UserResponseDto findUser(long id) {
@@ -74,5 +76,6 @@ public class UserServiceDbImpl implements UserService {
         log.debug("+ deleteUser: {}", id);
 
         userRepository.deleteById(id);
+        itemSearchIndex.removeItemsOfOwner(id);
     }
 }
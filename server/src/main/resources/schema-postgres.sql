@@ -0,0 +1,64 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+DECLARE
+    conflicts TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_booking_approved_period'') THEN
+        SELECT string_agg(b.id || ''/'' || o.id, '', '' ORDER BY b.id, o.id) INTO conflicts
+        FROM bookings AS b
+        JOIN bookings AS o ON o.item_id = b.item_id AND o.id > b.id AND o.status = ''APPROVED''
+            AND o.start_date < b.end_date AND o.end_date > b.start_date
+        WHERE b.status = ''APPROVED'';
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION ''Overlapping APPROVED bookings must be resolved first, conflicting ids: %'', conflicts
+                USING HINT = ''Reject one booking of each pair before adding ex_booking_approved_period'';
+        END IF;
+
+        ALTER TABLE bookings ADD CONSTRAINT ex_booking_approved_period EXCLUDE USING gist (
+            item_id WITH =,
+            tsrange(start_date, end_date) WITH &&
+        ) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+DO '
+DECLARE
+    max_id BIGINT;
+BEGIN
+    -- Rows inserted with identity ids before bookings_seq existed are skipped once. Inserts wait for the locks, and
+    -- a sequence that is already ahead of the stored ids is never moved, so values handed out stay unique.
+    LOCK TABLE bookings, bookings_archive IN SHARE ROW EXCLUSIVE MODE;
+    SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM bookings), (SELECT COALESCE(MAX(id), 0) FROM bookings_archive))
+    INTO max_id;
+    IF max_id >= (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM bookings_seq) THEN
+        PERFORM setval(''bookings_seq'', max_id + 1, false);
+    END IF;
+END';
+
+-- Counters of bookings made before item_booking_stats existed, filled once while the table is empty. Minutes of
+-- approved bookings are split by days like ItemBookingStatsService does.
+INSERT INTO item_booking_stats (item_id, booking_day, bookings, approved, rejected, booked_minutes)
+SELECT s.item_id, s.booking_day, SUM(s.bookings), SUM(s.approved), SUM(s.rejected), SUM(s.booked_minutes)
+FROM (
+    SELECT b.item_id, CAST(b.start_date AS DATE) AS booking_day, COUNT(*) AS bookings,
+        COUNT(*) FILTER (WHERE b.status = 'APPROVED') AS approved,
+        COUNT(*) FILTER (WHERE b.status = 'REJECTED') AS rejected, 0 AS booked_minutes
+    FROM (SELECT item_id, start_date, status FROM bookings
+        UNION ALL
+        SELECT item_id, start_date, status FROM bookings_archive) AS b
+    GROUP BY b.item_id, CAST(b.start_date AS DATE)
+    UNION ALL
+    SELECT b.item_id, CAST(d.day_start AS DATE), 0, 0, 0,
+        FLOOR(EXTRACT(EPOCH FROM LEAST(b.end_date, d.day_start + INTERVAL '1 day')
+            - GREATEST(b.start_date, d.day_start)) / 60)
+    FROM (SELECT item_id, start_date, end_date FROM bookings WHERE status = 'APPROVED'
+        UNION ALL
+        SELECT item_id, start_date, end_date FROM bookings_archive WHERE status = 'APPROVED') AS b
+    CROSS JOIN LATERAL generate_series(date_trunc('day', b.start_date), b.end_date, INTERVAL '1 day')
+        AS d(day_start)
+    WHERE d.day_start < b.end_date
+) AS s
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_stats)
+GROUP BY s.item_id, s.booking_day
+ON CONFLICT DO NOTHING;
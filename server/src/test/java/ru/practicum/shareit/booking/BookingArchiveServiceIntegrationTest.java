@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.BookingExportService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class BookingArchiveServiceIntegrationTest {
+    private static final List<String> STATES = List.of("ALL", "PAST", "REJECTED", "WAITING");
+
+    @Autowired
+    private BookingArchiveService bookingArchiveService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingExportService bookingExportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Test
+    @DisplayName("Method archiveBookingsEndedBefore(LocalDateTime time, int limit) should move finished bookings" +
+            " without changing results of booking queries")
+    void shouldArchiveFinishedBookings() throws Exception {
+        final List<List<BookingResponseDto>> expectedBookings = findBookings();
+        final List<List<String>> expectedExportedBookings = exportBookings();
+        final BookingResponseDto expectedBooking = bookingService.findBooking(2L, 5L);
+
+        final int archived = bookingArchiveService.archiveBookingsEndedBefore(
+                LocalDateTime.parse("2024-01-01T00:00:00"), 2) +
+                bookingArchiveService.archiveBookingsEndedBefore(LocalDateTime.parse("2024-01-01T00:00:00"), 2);
+
+        assertEquals(3, archived, "Count of archived bookings and expectedCount is not match");
+        assertFalse(bookingRepository.existsById(5L), "Booking 5 is not archived");
+        assertTrue(archivedBookingRepository.existsById(5L), "Booking 5 is not archived");
+        assertTrue(bookingRepository.existsById(6L), "Waiting booking 6 is archived");
+
+        assertEquals(expectedBookings, findBookings(), "Bookings and expectedBookings is not match");
+        assertEquals(expectedExportedBookings, exportBookings(), "Exported bookings and expectedExportedBookings is" +
+                " not match");
+        final List<String> expectedOwnerBookings = new ArrayList<>();
+        for (BookingResponseDto booking : bookingService.findAllBookingsByOwnerId(1L, "ALL", 0, 20)) {
+            expectedOwnerBookings.add(objectMapper.writeValueAsString(booking));
+        }
+        assertEquals(expectedOwnerBookings, exportBookings().get(1), "Exported bookings and expectedBookings is" +
+                " not match");
+        assertEquals(expectedBooking, bookingService.findBooking(2L, 5L), "Booking and expectedBooking is not" +
+                " match");
+        assertEquals(bookingService.findAllBookingsByUserId(4L, "ALL", 1, 1),
+                bookingService.findBookingsPageByUserId(4L, "ALL",
+                        bookingService.findBookingsPageByUserId(4L, "ALL", "", 1).getNext(), 1).getBookings(),
+                "Bookings of page and expectedBookings is not match");
+
+        itemBookingSummaryRepository.deleteAll();
+        assertEquals(new BookingItemDto(5L, 2L), itemService.findItem(3L, 2L).getLastBooking(), "LastBooking and" +
+                " expectedLastBooking is not match");
+        assertEquals(new BookingItemDto(5L, 2L), itemService.findAllItems(3L, 0, 20).get(0).getLastBooking(),
+                "LastBooking and expectedLastBooking is not match");
+    }
+
+    private List<List<String>> exportBookings() throws IOException {
+        final List<List<String>> bookings = new ArrayList<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            bookings.add(readExport(bookingExportService.exportBookingsOfBooker(userId)));
+            bookings.add(readExport(bookingExportService.exportBookingsOfOwner(userId)));
+        }
+
+        return bookings;
+    }
+
+    private List<String> readExport(StreamingResponseBody export) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        export.writeTo(outputStream);
+
+        final String exportedBookings = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(exportedBookings.isEmpty() || exportedBookings.endsWith("\n"), "Exported bookings do not end" +
+                " with new line");
+
+        return exportedBookings.isEmpty() ? List.of() : List.of(exportedBookings.split("\n"));
+    }
+
+    private List<List<BookingResponseDto>> findBookings() {
+        final List<List<BookingResponseDto>> bookings = new ArrayList<>();
+        for (String state : STATES) {
+            for (long userId = 1; userId <= 4; userId++) {
+                bookings.add(bookingService.findAllBookingsByUserId(userId, state, 0, 20));
+                bookings.add(bookingService.findAllBookingsByOwnerId(userId, state, 0, 20));
+                bookings.add(bookingService.findAllBookingsByUserId(userId, state, 1, 2));
+                bookings.add(bookingService.findBookingsPageByOwnerId(userId, state, "", 2).getBookings());
+            }
+        }
+
+        return bookings;
+    }
+}
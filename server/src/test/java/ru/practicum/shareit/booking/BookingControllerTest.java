@@ -15,8 +15,13 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCreateResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.ExceptionViolation;
@@ -25,6 +30,7 @@ import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.user.dto.UserBookingDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -34,6 +40,8 @@ public class BookingControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingExportService bookingExportService;
     private ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
@@ -153,6 +161,62 @@ public class BookingControllerTest {
                         .json(objectMapper.writeValueAsString(testBookings)));
     }
 
+    @Test
+    @DisplayName("GET /bookings?cursor= returns HTTP-response with status code 200, content type application/json," +
+            " correct list of bookings and next cursor header")
+    void shouldReturnPageOfBookingsOfUserWithNextCursor() throws Exception {
+        final BookingResponseDto testBooking = BookingResponseDto.builder()
+                .id(1L)
+                .start(LocalDateTime.parse("2023-11-26T20:00:00"))
+                .end(LocalDateTime.parse("2023-11-30T20:00:00"))
+                .status(BookingStatus.APPROVED)
+                .booker(UserBookingDto.builder()
+                        .id(1L)
+                        .build())
+                .item(ItemBookingDto.builder()
+                        .id(1L)
+                        .name("Семенова Анна")
+                        .build())
+                .build();
+        final BookingPageDto testPage = BookingPageDto.builder()
+                .bookings(List.of(testBooking))
+                .next("MjAyMy0xMS0yNlQyMDowMHwx")
+                .build();
+
+        Mockito.when(bookingService.findBookingsPageByUserId(1L, "ALL", "", 1))
+                .thenReturn(testPage);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", "MjAyMy0xMS0yNlQyMDowMHwx"))
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(testBooking))));
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner?cursor= returns HTTP-response with status code 200 and no next cursor header" +
+            " on the last page")
+    void shouldReturnLastPageOfBookingsOfOwnerWithoutNextCursor() throws Exception {
+        final BookingPageDto testPage = BookingPageDto.builder()
+                .bookings(List.of())
+                .next(null)
+                .build();
+
+        Mockito.when(bookingService.findBookingsPageByOwnerId(1L, "ALL", "MjAyMy0xMS0yNlQyMDowMHwx", 20))
+                .thenReturn(testPage);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "MjAyMy0xMS0yNlQyMDowMHwx"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
+                .andExpect(MockMvcResultMatchers.content().json("[]"));
+    }
+
     @Test
     @DisplayName("GET /bookings returns HTTP-response with status code 200, content type application/json and " +
             "correct list of bookings")
@@ -323,4 +387,109 @@ public class BookingControllerTest {
                 .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(errorResponse)));
     }
+
+    @Test
+    @DisplayName("PATH /bookings/batch returns HTTP-response with status code 200, content type application/json and " +
+            "result for every requested booking")
+    void shouldUpdateBookingStatuses() throws Exception {
+        final List<BookingStatusUpdateDto> updates = List.of(
+                BookingStatusUpdateDto.builder().id(1L).approved(true).build(),
+                BookingStatusUpdateDto.builder().id(2L).approved(false).build());
+        final BookingResponseDto testBooking = BookingResponseDto.builder()
+                .id(1L)
+                .start(LocalDateTime.parse("2023-11-30T20:00:00"))
+                .end(LocalDateTime.parse("2023-12-02T20:00:00"))
+                .status(BookingStatus.APPROVED)
+                .booker(UserBookingDto.builder().id(2L).build())
+                .item(ItemBookingDto.builder().id(1L).name("Семенова Анна").build())
+                .build();
+        final List<BookingStatusUpdateResultDto> results = List.of(
+                BookingStatusUpdateResultDto.builder().id(1L).booking(testBooking).build(),
+                BookingStatusUpdateResultDto.builder().id(2L).error("Booking 2 is already approved").build());
+
+        Mockito.when(bookingService.updateBookingStatuses(1L, updates)).thenReturn(results);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(updates))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(results)));
+    }
+
+    @Test
+    @DisplayName("POST /bookings/batch returns HTTP-response with status code 200, content type application/json and " +
+            "result for every requested booking")
+    void shouldCreateBookings() throws Exception {
+        final List<BookingCreateDto> bookingDtos = List.of(
+                BookingCreateDto.builder()
+                        .itemId(1L)
+                        .start(LocalDateTime.parse("2030-11-26T20:00:00"))
+                        .end(LocalDateTime.parse("2030-11-30T20:00:00"))
+                        .build(),
+                BookingCreateDto.builder()
+                        .itemId(100L)
+                        .start(LocalDateTime.parse("2030-11-26T20:00:00"))
+                        .end(LocalDateTime.parse("2030-11-30T20:00:00"))
+                        .build());
+        final BookingResponseDto testBooking = BookingResponseDto.builder()
+                .id(1L)
+                .start(LocalDateTime.parse("2030-11-26T20:00:00"))
+                .end(LocalDateTime.parse("2030-11-30T20:00:00"))
+                .status(BookingStatus.WAITING)
+                .booker(UserBookingDto.builder().id(3L).build())
+                .item(ItemBookingDto.builder().id(1L).name("Петров Алексей").build())
+                .build();
+        final List<BookingCreateResultDto> results = List.of(
+                BookingCreateResultDto.builder().booking(testBooking).build(),
+                BookingCreateResultDto.builder().error("Item with id 100 not exist").build());
+
+        Mockito.when(bookingService.createNewBookings(3L, bookingDtos)).thenReturn(results);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 3)
+                        .content(objectMapper.writeValueAsString(bookingDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(results)));
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner/export returns HTTP-response with status code 200, content type" +
+            " application/x-ndjson and exported bookings")
+    void shouldExportBookingsOfOwner() throws Exception {
+        final String exportedBookings = "{\"id\":1}\n{\"id\":2}\n";
+
+        Mockito
+                .when(bookingExportService.exportBookingsOfOwner(3L))
+                .thenReturn(outputStream -> outputStream.write(exportedBookings.getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mockMvc.perform(MockMvcRequestBuilders
+                                .get("/bookings/owner/export")
+                                .header("X-Sharer-User-Id", 3))
+                        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                        .andReturn()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(exportedBookings));
+    }
+
+    @Test
+    @DisplayName("GET /bookings/export returns HTTP-response with status code 404, content type application/json and" +
+            " error massage, when user is not exist")
+    void shouldNotExportBookingsOfUserNotExist() throws Exception {
+        final ExceptionViolation errorResponse = new ExceptionViolation("User with id 100 not exist");
+
+        Mockito
+                .when(bookingExportService.exportBookingsOfBooker(100L))
+                .thenThrow(new IdNotFoundException("User with id 100 not exist"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/export")
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(errorResponse)));
+    }
 }
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryScheduler;
+import ru.practicum.shareit.booking.service.BookingExpiryService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class BookingExpiryServiceIntegrationTest {
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+    @Autowired
+    private BookingExpiryScheduler bookingExpiryScheduler;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Method expireBookingsStartedBefore(LocalDateTime time, int limit) should expire WAITING bookings" +
+            " started before time by chunks and keep other bookings")
+    void shouldExpireStaleWaitingBookings() throws Exception {
+        final long staleBookingId = saveStaleBooking();
+        final long futureBookingId = bookingService.createNewBooking(2L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2097-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2097-01-02T00:00:00"))
+                .build()).getId();
+
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            int expired = 0;
+            int chunk;
+            do {
+                chunk = bookingExpiryService.expireBookingsStartedBefore(now, 1);
+                expired += chunk;
+            } while (chunk == 1);
+
+            assertTrue(expired >= 1, "Count of expired bookings " + expired + " is less than 1");
+            assertEquals(BookingStatus.EXPIRED, bookingService.findBooking(2L, staleBookingId).getStatus(),
+                    "Status and expectedStatus is not match");
+            assertEquals(BookingStatus.WAITING, bookingService.findBooking(2L, futureBookingId).getStatus(),
+                    "Status and expectedStatus is not match");
+            assertEquals(BookingStatus.APPROVED, bookingService.findBooking(2L, 5L).getStatus(), "Status and" +
+                    " expectedStatus is not match");
+            assertTrue(findBookingIds(2L, "EXPIRED").contains(staleBookingId), "Booking " + staleBookingId +
+                    " is not found by state EXPIRED");
+            assertEquals(List.of(futureBookingId), findBookingIds(2L, "WAITING"), "BookingsIds and" +
+                    " expectedBookingsIds is not match");
+            assertEquals(0, bookingExpiryService.expireBookingsStartedBefore(now, 1), "Count of expired bookings" +
+                    " and expectedCount is not match");
+        } finally {
+            bookingRepository.deleteById(staleBookingId);
+            bookingRepository.deleteById(futureBookingId);
+        }
+    }
+
+    @Test
+    @DisplayName("Method expireStaleBookings() should record count of expired bookings and duration of run")
+    void shouldRecordExpiryMetrics() throws Exception {
+        final double expiredBefore = meterRegistry.get("shareit.bookings.expired").counter().count();
+        final long runsBefore = meterRegistry.get("shareit.bookings.expiry").timer().count();
+        final long staleBookingId = saveStaleBooking();
+        final LocalDateTime now = LocalDateTime.now();
+        final long staleBookingsCount = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING && booking.getStart().isBefore(now))
+                .count();
+
+        try {
+            bookingExpiryScheduler.expireStaleBookings();
+
+            assertEquals(expiredBefore + staleBookingsCount,
+                    meterRegistry.get("shareit.bookings.expired").counter().count(), "Count of expired bookings and" +
+                    " expectedCount is not match");
+            assertEquals(runsBefore + 1, meterRegistry.get("shareit.bookings.expiry").timer().count(),
+                    "Count of runs and expectedCount is not match");
+        } finally {
+            bookingRepository.deleteById(staleBookingId);
+        }
+    }
+
+    private long saveStaleBooking() {
+        return bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.parse("2025-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2025-01-02T00:00:00"))
+                .item(itemService.checkItem(5L))
+                .booker(userService.checkUser(2L))
+                .status(BookingStatus.WAITING)
+                .build()).getId();
+    }
+
+    private List<Long> findBookingIds(long userId, String state) {
+        return bookingService.findAllBookingsByUserId(userId, state, 0, 20).stream()
+                .map(BookingResponseDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,271 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.exception.RequestValidationException;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Booking> storedBookings = new ArrayList<>();
+    private final Item item = Item.builder()
+            .id(1L)
+            .build();
+
+    @BeforeEach
+    void initiateBookingIntervalIndex() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, 2, Duration.ofMinutes(1));
+        Mockito.lenient()
+                .when(bookingRepository.findBookingsOfItemEndingAfter(anyLong(), anyCollection(), any()))
+                .thenAnswer(invocation -> {
+                    final long itemId = invocation.getArgument(0);
+                    final Collection<BookingStatus> statuses = invocation.getArgument(1);
+                    final LocalDateTime time = invocation.getArgument(2);
+                    return storedBookings.stream()
+                            .filter(booking -> booking.getItem().getId() == itemId)
+                            .filter(booking -> statuses.contains(booking.getStatus()))
+                            .filter(booking -> booking.getEnd().isAfter(time))
+                            .collect(Collectors.toList());
+                });
+    }
+
+    @Test
+    @DisplayName("Method reserve(Booking booking, UnaryOperator<Booking> save) should reject overlapping periods and" +
+            " accept adjacent ones")
+    void shouldRejectOverlappingPeriods() throws Exception {
+        reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+
+        assertThrows(RequestValidationException.class, () -> reserve("2030-01-15T00:00:00", "2030-01-25T00:00:00"));
+        assertThrows(RequestValidationException.class, () -> reserve("2030-01-05T00:00:00", "2030-01-11T00:00:00"));
+        assertThrows(RequestValidationException.class, () -> reserve("2030-01-12T00:00:00", "2030-01-13T00:00:00"));
+        assertThrows(RequestValidationException.class, () -> reserve("2030-01-01T00:00:00", "2030-02-01T00:00:00"));
+        assertDoesNotThrow(() -> reserve("2030-01-01T00:00:00", "2030-01-10T00:00:00"));
+        assertDoesNotThrow(() -> reserve("2030-01-20T00:00:00", "2030-01-30T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Method reserve(Booking booking, UnaryOperator<Booking> save) should detect overlap with a long" +
+            " interval that starts before shorter ones")
+    void shouldDetectOverlapWithLongInterval() throws Exception {
+        final Booking longBooking = booking("2030-01-01T00:00:00", "2030-03-01T00:00:00");
+        longBooking.setId(100L);
+        final Booking shortBooking = booking("2030-02-05T00:00:00", "2030-02-06T00:00:00");
+        shortBooking.setId(101L);
+        storedBookings.addAll(List.of(longBooking, shortBooking));
+
+        assertThrows(RequestValidationException.class, () -> reserve("2030-02-10T00:00:00", "2030-02-11T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Method findReservedPeriods(long itemId, LocalDateTime from, LocalDateTime to) should return" +
+            " periods intersecting the range ordered by start")
+    void shouldReturnReservedPeriodsIntersectingRange() throws Exception {
+        reserve("2030-01-01T00:00:00", "2030-03-01T00:00:00");
+        reserve("2030-03-01T00:00:00", "2030-03-02T00:00:00");
+        reserve("2030-03-05T00:00:00", "2030-03-06T00:00:00");
+        reserve("2030-03-10T00:00:00", "2030-03-11T00:00:00");
+
+        final List<BookingPeriodDto> periods = bookingIntervalIndex.findReservedPeriods(1L,
+                LocalDateTime.parse("2030-02-15T00:00:00"), LocalDateTime.parse("2030-03-10T00:00:00"));
+
+        assertEquals(List.of(
+                new BookingPeriodDto(LocalDateTime.parse("2030-01-01T00:00:00"),
+                        LocalDateTime.parse("2030-03-01T00:00:00")),
+                new BookingPeriodDto(LocalDateTime.parse("2030-03-01T00:00:00"),
+                        LocalDateTime.parse("2030-03-02T00:00:00")),
+                new BookingPeriodDto(LocalDateTime.parse("2030-03-05T00:00:00"),
+                        LocalDateTime.parse("2030-03-06T00:00:00"))), periods, "Periods and expectedPeriods is" +
+                " not match");
+    }
+
+    @Test
+    @DisplayName("Method release(Booking booking) should free reserved period in cached intervals")
+    void shouldFreeReleasedPeriod() throws Exception {
+        final Booking booking = reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingIntervalIndex.release(booking);
+
+        assertEquals(List.of(), findReservedPeriods(), "Periods and expectedPeriods is not match");
+        assertDoesNotThrow(() -> reserve("2030-01-15T00:00:00", "2030-01-25T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Method release(Booking booking) should free reserved period only after commit of transaction")
+    void shouldFreeReleasedPeriodAfterCommit() throws Exception {
+        final Booking booking = reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingIntervalIndex.release(booking);
+
+            assertEquals(1, findReservedPeriods().size(), "Count of periods and expectedCount is not match");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(), findReservedPeriods(), "Periods and expectedPeriods is not match");
+    }
+
+    @Test
+    @DisplayName("Method findReservedPeriods(long itemId, LocalDateTime from, LocalDateTime to) should drop periods" +
+            " that ended")
+    void shouldDropEndedPeriods() throws Exception {
+        final LocalDateTime now = LocalDateTime.now();
+        reserve(now.minusDays(10).toString(), now.minusDays(1).toString());
+        reserve(now.minusDays(1).toString(), now.plusDays(1).toString());
+
+        final List<BookingPeriodDto> periods = bookingIntervalIndex.findReservedPeriods(1L, now.minusDays(20),
+                now.plusDays(20));
+
+        assertEquals(1, periods.size(), "Count of periods and expectedCount is not match");
+        assertEquals(now.minusDays(1), periods.get(0).getStart(), "Start and expectedStart is not match");
+    }
+
+    @Test
+    @DisplayName("Method findReservedPeriods(long itemId, LocalDateTime from, LocalDateTime to) should read cached" +
+            " intervals of item until they expire")
+    void shouldReadCachedIntervalsUntilExpired() throws Exception {
+        reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+        findReservedPeriods();
+        findReservedPeriods();
+
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findBookingsOfItemEndingAfter(anyLong(), anyCollection(), any());
+
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, 2, Duration.ZERO);
+        findReservedPeriods();
+        findReservedPeriods();
+
+        Mockito.verify(bookingRepository, Mockito.times(3))
+                .findBookingsOfItemEndingAfter(anyLong(), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Method reserve(Booking booking, UnaryOperator<Booking> save) should reload intervals of item and" +
+            " reject periods booked on other nodes")
+    void shouldRejectPeriodsBookedOnOtherNodes() throws Exception {
+        assertEquals(List.of(), findReservedPeriods(), "Periods and expectedPeriods is not match");
+        final Booking otherNodeBooking = booking("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+        otherNodeBooking.setId(100L);
+        storedBookings.add(otherNodeBooking);
+
+        assertThrows(RequestValidationException.class, () -> reserve("2030-01-15T00:00:00", "2030-01-25T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Method findReservedPeriods(long itemId, LocalDateTime from, LocalDateTime to) should keep only" +
+            " recently used items")
+    void shouldEvictLeastRecentlyUsedItems() throws Exception {
+        final LocalDateTime from = LocalDateTime.parse("2030-01-01T00:00:00");
+        final LocalDateTime to = LocalDateTime.parse("2030-02-01T00:00:00");
+
+        bookingIntervalIndex.findReservedPeriods(1L, from, to);
+        bookingIntervalIndex.findReservedPeriods(2L, from, to);
+        bookingIntervalIndex.findReservedPeriods(1L, from, to);
+        bookingIntervalIndex.findReservedPeriods(3L, from, to);
+        bookingIntervalIndex.findReservedPeriods(1L, from, to);
+        bookingIntervalIndex.findReservedPeriods(2L, from, to);
+
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findBookingsOfItemEndingAfter(eq(1L), anyCollection(), any());
+        Mockito.verify(bookingRepository, Mockito.times(2))
+                .findBookingsOfItemEndingAfter(eq(2L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Method reserveAll(List<Booking> bookings, UnaryOperator<List<Booking>> saveAll) should save" +
+            " bookings at once and return ones overlapping reserved periods or each other")
+    void shouldReserveAllNotOverlappingBookings() throws Exception {
+        reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+        final Booking overlappingReserved = booking("2030-01-15T00:00:00", "2030-01-16T00:00:00");
+        final Booking first = booking("2030-02-01T00:00:00", "2030-02-10T00:00:00");
+        final Booking overlappingFirst = booking("2030-02-05T00:00:00", "2030-02-15T00:00:00");
+        final Booking adjacent = booking("2030-02-10T00:00:00", "2030-02-15T00:00:00");
+        final List<List<Booking>> savedBatches = new ArrayList<>();
+
+        final List<Booking> rejectedBookings = bookingIntervalIndex.reserveAll(List.of(overlappingReserved, first,
+                overlappingFirst, adjacent), bookings -> {
+                    bookings.forEach(booking -> booking.setId(ids.incrementAndGet()));
+                    storedBookings.addAll(bookings);
+                    savedBatches.add(List.copyOf(bookings));
+                    return bookings;
+                });
+
+        assertEquals(List.of(overlappingReserved.getStart(), overlappingFirst.getStart()), rejectedBookings.stream()
+                .map(Booking::getStart)
+                .collect(Collectors.toList()), "RejectedBookings and expectedRejectedBookings is not match");
+        assertEquals(List.of(List.of(first, adjacent)), savedBatches,
+                "SavedBatches and expectedSavedBatches is not match");
+        assertThrows(RequestValidationException.class, () -> reserve("2030-02-12T00:00:00", "2030-02-13T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Method reserveAll(List<Booking> bookings, UnaryOperator<List<Booking>> saveAll) should not keep" +
+            " periods of bookings when saving fails")
+    void shouldNotKeepPeriodsWhenSavingFails() throws Exception {
+        final Booking booking = booking("2030-01-10T00:00:00", "2030-01-20T00:00:00");
+
+        assertThrows(IllegalStateException.class, () -> bookingIntervalIndex.reserveAll(List.of(booking),
+                bookings -> {
+                    throw new IllegalStateException();
+                }));
+
+        assertDoesNotThrow(() -> reserve("2030-01-10T00:00:00", "2030-01-20T00:00:00"));
+    }
+
+    private Booking reserve(String start, String end) {
+        return bookingIntervalIndex.reserve(booking(start, end), booking -> {
+            booking.setId(ids.incrementAndGet());
+            storedBookings.add(booking);
+            return booking;
+        });
+    }
+
+    private List<BookingPeriodDto> findReservedPeriods() {
+        return bookingIntervalIndex.findReservedPeriods(1L, LocalDateTime.parse("2030-01-01T00:00:00"),
+                LocalDateTime.parse("2030-02-01T00:00:00"));
+    }
+
+    private Booking booking(String start, String end) {
+        return Booking.builder()
+                .start(LocalDateTime.parse(start))
+                .end(LocalDateTime.parse(end))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
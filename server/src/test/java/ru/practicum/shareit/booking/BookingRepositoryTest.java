@@ -4,10 +4,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 public class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
 
     @Test
     @DisplayName("Method findAllByBookerIdOrderByStartDesc(long id) should return correct list of bookings")
@@ -43,36 +49,61 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Method findPastBookingsOfItem(long id) should return correct list of bookings")
-    void shouldReturnPastBookingsOfItem() throws Exception {
-        final List<Long> expectedBookingsIds = List.of(1L, 2L);
-
-        final List<Long> bookingsIds = bookingRepository.findPastBookingsOfItem(3L).stream()
-                .map(BookingItemDto::getId)
+    @DisplayName("Method findLiveAndArchivedBookingsOfOwner(long ownerId, Pageable pageable) should return requested" +
+            " page of bookings")
+    void shouldReturnPageOfAllBookingsOfOwner() throws Exception {
+        final List<Long> expectedBookingsIds = List.of(6L, 1L);
+
+        final List<Long> bookingsIds = archivedBookingRepository.findLiveAndArchivedBookingsOfOwner(1L,
+                        new OffsetLimitPageable(2, 2)).stream()
+                .map(row -> ((Number) row[0]).longValue())
                 .collect(Collectors.toList());
 
         assertEquals(expectedBookingsIds, bookingsIds, "BookingsIds and expectedBookingsIds is not match");
     }
 
     @Test
-    @DisplayName("Method findFutureBookingsOfItem(long id) should return correct list of bookings")
-    void shouldReturnFutureBookingsOfItem() throws Exception {
-        final List<Long> expectedBookingsIds = List.of(3L, 4L);
+    @DisplayName("Methods findCurrentBookingsOfOwner, findLiveAndArchivedPastBookingsOfOwner and" +
+            " findFutureBookingsOfOwner should return bookings of matching time period")
+    void shouldReturnBookingsOfOwnerByPeriod() throws Exception {
+        final LocalDateTime now = LocalDateTime.parse("2023-08-05T00:00:00");
+        final OffsetLimitPageable pageable = new OffsetLimitPageable(0, 20);
+
+        assertEquals(List.of(1L), bookingRepository.findCurrentBookingsOfOwner(1L, now, pageable).stream()
+                .map(BookingResponseDto::getId)
+                .collect(Collectors.toList()), "Current bookingsIds is not match");
+        assertEquals(List.of(2L), archivedBookingRepository.findLiveAndArchivedPastBookingsOfOwner(1L, now, pageable)
+                .stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .collect(Collectors.toList()), "Past bookingsIds is not match");
+        assertEquals(List.of(4L, 3L, 6L), bookingRepository.findFutureBookingsOfOwner(1L, now, pageable).stream()
+                .map(BookingResponseDto::getId)
+                .collect(Collectors.toList()), "Future bookingsIds is not match");
+    }
 
-        final List<Long> bookingsIds = bookingRepository.findFutureBookingsOfItem(3L).stream()
-                .map(BookingItemDto::getId)
+    @Test
+    @DisplayName("Method findBookingsOfBookerByStatus(long bookerId, BookingStatus status, Pageable pageable) should" +
+            " return bookings with requested status")
+    void shouldReturnBookingsOfBookerByStatus() throws Exception {
+        final List<Long> expectedBookingsIds = List.of(6L);
+
+        final List<Long> bookingsIds = bookingRepository
+                .findBookingsOfBookerByStatus(2L, BookingStatus.WAITING, new OffsetLimitPageable(0, 20)).stream()
+                .map(BookingResponseDto::getId)
                 .collect(Collectors.toList());
 
         assertEquals(expectedBookingsIds, bookingsIds, "BookingsIds and expectedBookingsIds is not match");
     }
 
     @Test
-    @DisplayName("Method findCountBookingsOfUser(long userId, long itemId) should return correct count of bookings")
-    void shouldReturnCountOfBookingsForUser() throws Exception {
-        final int expectedCount = 1;
-
-        final int count = bookingRepository.findCountBookingsOfUser(4L, 3L);
-
-        assertEquals(expectedCount, count, "Count and expectedCount is not match");
+    @DisplayName("Method approveBookingIfNotOverlapping(long id, long ownerId) should approve only waiting Booking of" +
+            " Item of the owner")
+    void shouldApproveOnlyBookingOfOwner() throws Exception {
+        assertEquals(0, bookingRepository.approveBookingIfNotOverlapping(6L, 3L),
+                "Count of updated Bookings and expected is not match");
+        assertEquals(1, bookingRepository.approveBookingIfNotOverlapping(6L, 1L),
+                "Count of updated Bookings and expected is not match");
+        assertEquals(0, bookingRepository.approveBookingIfNotOverlapping(6L, 1L),
+                "Count of updated Bookings and expected is not match");
     }
 }
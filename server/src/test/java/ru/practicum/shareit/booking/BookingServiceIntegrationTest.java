@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,24 +9,52 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCreateResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
+import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.user.dto.UserBookingDto;
+import ru.practicum.shareit.user.entity.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 @SpringBootTest
 @AutoConfigureTestDatabase
 public class BookingServiceIntegrationTest {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingMapper bookingMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     @DisplayName("Method findBooking(long userId, long id) should return expected Booking")
@@ -263,4 +293,399 @@ public class BookingServiceIntegrationTest {
 
         Assertions.assertEquals(expectedBookings, bookings, "Bookings and expectedBookings is not match");
     }
+
+    @Test
+    @DisplayName("Methods findAllBookingsByUserId and findAllBookingsByOwnerId should return the same pages as" +
+            " in-memory filtering of all user bookings")
+    void shouldReturnSamePagesAsInMemoryFiltering() throws Exception {
+        for (long userId = 1; userId <= 4; userId++) {
+            final List<Booking> bookerBookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
+            final List<Booking> ownerBookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
+
+            for (String state : STATES) {
+                for (int from = 0; from <= 5; from++) {
+                    for (int size = 1; size <= 5; size++) {
+                        Assertions.assertEquals(filterAndPage(bookerBookings, state, from, size),
+                                bookingService.findAllBookingsByUserId(userId, state, from, size),
+                                String.format("Bookings of booker %s with state %s, from %s and size %s is not" +
+                                        " match", userId, state, from, size));
+                        Assertions.assertEquals(filterAndPage(ownerBookings, state, from, size),
+                                bookingService.findAllBookingsByOwnerId(userId, state, from, size),
+                                String.format("Bookings of owner %s with state %s, from %s and size %s is not" +
+                                        " match", userId, state, from, size));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Methods findBookingsPageByUserId and findBookingsPageByOwnerId should walk through the same bookings" +
+            " as offset pagination")
+    void shouldReturnSameBookingsWithCursorAsWithOffset() throws Exception {
+        for (long userId = 1; userId <= 4; userId++) {
+            for (String state : STATES) {
+                for (int size = 1; size <= 3; size++) {
+                    final List<BookingResponseDto> bookerBookings = new ArrayList<>();
+                    final List<BookingResponseDto> ownerBookings = new ArrayList<>();
+
+                    BookingPageDto page = bookingService.findBookingsPageByUserId(userId, state, "", size);
+                    bookerBookings.addAll(page.getBookings());
+                    while (page.getNext() != null) {
+                        page = bookingService.findBookingsPageByUserId(userId, state, page.getNext(), size);
+                        bookerBookings.addAll(page.getBookings());
+                    }
+
+                    page = bookingService.findBookingsPageByOwnerId(userId, state, "", size);
+                    ownerBookings.addAll(page.getBookings());
+                    while (page.getNext() != null) {
+                        page = bookingService.findBookingsPageByOwnerId(userId, state, page.getNext(), size);
+                        ownerBookings.addAll(page.getBookings());
+                    }
+
+                    Assertions.assertEquals(bookingService.findAllBookingsByUserId(userId, state, 0, 100),
+                            bookerBookings, String.format("Bookings of booker %s with state %s and size %s is not" +
+                                    " match", userId, state, size));
+                    Assertions.assertEquals(bookingService.findAllBookingsByOwnerId(userId, state, 0, 100),
+                            ownerBookings, String.format("Bookings of owner %s with state %s and size %s is not" +
+                                    " match", userId, state, size));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Method findBookingsPageByUserId should throw RequestValidationException when cursor is malformed")
+    void shouldThrowExceptionWhenCursorIsMalformed() throws Exception {
+        final String expectedMessage = "Invalid cursor: not-a-cursor";
+
+        final RequestValidationException e = Assertions.assertThrows(
+                RequestValidationException.class,
+                () -> bookingService.findBookingsPageByUserId(4L, "ALL", "not-a-cursor", 20));
+
+        Assertions.assertEquals(expectedMessage, e.getMessage(), "Exception massage and expectedMassage is not match");
+    }
+
+    private List<BookingResponseDto> filterAndPage(List<Booking> bookings, String state, int from, int size) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Predicate<Booking> filter;
+        switch (state) {
+            case "CURRENT":
+                filter = booking -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+                break;
+            case "PAST":
+                filter = booking -> booking.getEnd().isBefore(now);
+                break;
+            case "FUTURE":
+                filter = booking -> booking.getStart().isAfter(now);
+                break;
+            case "WAITING":
+                filter = booking -> booking.getStatus().equals(BookingStatus.WAITING);
+                break;
+            case "REJECTED":
+                filter = booking -> booking.getStatus().equals(BookingStatus.REJECTED);
+                break;
+            default:
+                filter = booking -> true;
+        }
+
+        return bookings.stream()
+                .filter(filter)
+                .map(bookingMapper::bookingToBookingForResponseDto)
+                .skip(from)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Method createNewBooking(long userId, BookingCreateDto bookingDto) should create only one of" +
+            " concurrent overlapping Bookings of Item")
+    void shouldCreateOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        final int threads = 6;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<BookingResponseDto>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                final long bookerId = i % 3 + 1;
+                final BookingCreateDto bookingDto = BookingCreateDto.builder()
+                        .itemId(5L)
+                        .start(LocalDateTime.parse("2099-01-01T00:00:00").plusDays(i))
+                        .end(LocalDateTime.parse("2099-01-10T00:00:00").plusDays(i))
+                        .build();
+                final Callable<BookingResponseDto> task = () -> {
+                    startLatch.await();
+                    return bookingService.createNewBooking(bookerId, bookingDto);
+                };
+                results.add(executor.submit(task));
+            }
+            startLatch.countDown();
+
+            final List<BookingResponseDto> createdBookings = new ArrayList<>();
+            int rejected = 0;
+            for (Future<BookingResponseDto> result : results) {
+                try {
+                    createdBookings.add(result.get());
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(RequestValidationException.class, e.getCause(),
+                            "Exception of rejected Booking and expected exception is not match");
+                    rejected++;
+                }
+            }
+
+            Assertions.assertEquals(1, createdBookings.size(), "Count of created Bookings and expected is not match");
+            Assertions.assertEquals(threads - 1, rejected, "Count of rejected Bookings and expected is not match");
+
+            bookingRepository.deleteById(createdBookings.get(0).getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Method updateBookingStatus(long userId, long id, boolean approved) should approve only one of" +
+            " concurrently approved overlapping Bookings of Item")
+    void shouldApproveOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        final int threads = 6;
+        final List<Booking> waitingBookings = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            waitingBookings.add(bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.parse("2098-01-01T00:00:00").plusDays(i))
+                    .end(LocalDateTime.parse("2098-01-10T00:00:00").plusDays(i))
+                    .item(Item.builder().id(5L).build())
+                    .booker(User.builder().id(i % 3 + 1).build())
+                    .status(BookingStatus.WAITING)
+                    .build()));
+        }
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<BookingResponseDto>> results = new ArrayList<>();
+
+        try {
+            for (Booking booking : waitingBookings) {
+                final Callable<BookingResponseDto> task = () -> {
+                    startLatch.await();
+                    return bookingService.updateBookingStatus(4L, booking.getId(), true);
+                };
+                results.add(executor.submit(task));
+            }
+            startLatch.countDown();
+
+            int approved = 0;
+            int rejected = 0;
+            for (Future<BookingResponseDto> result : results) {
+                try {
+                    result.get();
+                    approved++;
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(RequestValidationException.class, e.getCause(),
+                            "Exception of rejected approval and expected exception is not match");
+                    rejected++;
+                }
+            }
+
+            Assertions.assertEquals(1, approved, "Count of approved Bookings and expected is not match");
+            Assertions.assertEquals(threads - 1, rejected, "Count of rejected approvals and expected is not match");
+            Assertions.assertEquals(1, bookingRepository.findAllById(waitingBookings.stream()
+                            .map(Booking::getId)
+                            .collect(Collectors.toList())).stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                    .count(), "Count of approved Bookings in database and expected is not match");
+        } finally {
+            executor.shutdownNow();
+            bookingRepository.deleteAll(waitingBookings);
+        }
+    }
+
+    @Test
+    @DisplayName("Method updateBookingStatus(long userId, long id, boolean approved) should apply only one of" +
+            " concurrent status updates of Booking")
+    void shouldApplyOnlyOneOfConcurrentStatusUpdates() throws Exception {
+        final int threads = 6;
+        final Booking waitingBooking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.parse("2097-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2097-01-10T00:00:00"))
+                .item(Item.builder().id(5L).build())
+                .booker(User.builder().id(1L).build())
+                .status(BookingStatus.WAITING)
+                .build());
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<BookingResponseDto>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                final boolean approved = i % 2 == 0;
+                final Callable<BookingResponseDto> task = () -> {
+                    startLatch.await();
+                    return bookingService.updateBookingStatus(4L, waitingBooking.getId(), approved);
+                };
+                results.add(executor.submit(task));
+            }
+            startLatch.countDown();
+
+            final List<BookingResponseDto> updatedBookings = new ArrayList<>();
+            for (Future<BookingResponseDto> result : results) {
+                try {
+                    updatedBookings.add(result.get());
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(RequestValidationException.class, e.getCause(),
+                            "Exception of rejected update and expected exception is not match");
+                }
+            }
+
+            Assertions.assertEquals(1, updatedBookings.size(), "Count of applied updates and expected is not match");
+            Assertions.assertEquals(updatedBookings.get(0).getStatus(),
+                    bookingRepository.findById(waitingBooking.getId()).orElseThrow().getStatus(),
+                    "Status of Booking and expectedStatus is not match");
+        } finally {
+            executor.shutdownNow();
+            bookingRepository.delete(waitingBooking);
+        }
+    }
+
+    @Test
+    @DisplayName("Method updateBookingStatuses(long userId, List<BookingStatusUpdateDto> updates) should update" +
+            " valid Bookings and report error for every other one")
+    void shouldUpdateBookingStatusesWithPartialFailures() throws Exception {
+        final List<Booking> waitingBookings = new ArrayList<>();
+        for (String start : List.of("2096-01-01T00:00:00", "2096-01-05T00:00:00", "2096-02-01T00:00:00")) {
+            waitingBookings.add(bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.parse(start))
+                    .end(LocalDateTime.parse(start).plusDays(7))
+                    .item(Item.builder().id(5L).build())
+                    .booker(User.builder().id(1L).build())
+                    .status(BookingStatus.WAITING)
+                    .build()));
+        }
+        final long firstId = waitingBookings.get(0).getId();
+        final long overlappingId = waitingBookings.get(1).getId();
+        final long rejectedId = waitingBookings.get(2).getId();
+
+        try {
+            final List<BookingStatusUpdateResultDto> results = bookingService.updateBookingStatuses(4L, List.of(
+                    BookingStatusUpdateDto.builder().id(firstId).approved(true).build(),
+                    BookingStatusUpdateDto.builder().id(overlappingId).approved(true).build(),
+                    BookingStatusUpdateDto.builder().id(rejectedId).approved(false).build(),
+                    BookingStatusUpdateDto.builder().id(rejectedId).approved(true).build(),
+                    BookingStatusUpdateDto.builder().id(1L).approved(true).build(),
+                    BookingStatusUpdateDto.builder().id(100L).approved(true).build()));
+
+            Assertions.assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus(),
+                    "Status of Booking and expectedStatus is not match");
+            Assertions.assertEquals("Item 5 is already booked for period from 2096-01-05T00:00 to 2096-01-12T00:00",
+                    results.get(1).getError(), "Error and expectedError is not match");
+            Assertions.assertEquals(BookingStatus.REJECTED, results.get(2).getBooking().getStatus(),
+                    "Status of Booking and expectedStatus is not match");
+            Assertions.assertEquals(String.format("Booking %s is repeated in batch", rejectedId),
+                    results.get(3).getError(), "Error and expectedError is not match");
+            Assertions.assertEquals("User 4 does not have access to target booking", results.get(4).getError(),
+                    "Error and expectedError is not match");
+            Assertions.assertEquals("Booking with id 100 not exist", results.get(5).getError(),
+                    "Error and expectedError is not match");
+
+            Assertions.assertEquals(BookingStatus.APPROVED, bookingRepository.findById(firstId).orElseThrow()
+                    .getStatus(), "Status of Booking and expectedStatus is not match");
+            Assertions.assertEquals(BookingStatus.WAITING, bookingRepository.findById(overlappingId).orElseThrow()
+                    .getStatus(), "Status of Booking and expectedStatus is not match");
+            Assertions.assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejectedId).orElseThrow()
+                    .getStatus(), "Status of Booking and expectedStatus is not match");
+        } finally {
+            bookingRepository.deleteAll(waitingBookings);
+        }
+    }
+
+    @Test
+    @DisplayName("Method createNewBookings(long userId, List<BookingCreateDto> bookingDtos) should insert valid" +
+            " Bookings in JDBC batches and report error for every other one")
+    void shouldCreateBookingsInBatches() throws Exception {
+        final int count = 120;
+        final List<BookingCreateDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookingDtos.add(BookingCreateDto.builder()
+                    .itemId(5L)
+                    .start(LocalDateTime.parse("2095-01-01T00:00:00").plusDays(i))
+                    .end(LocalDateTime.parse("2095-01-02T00:00:00").plusDays(i))
+                    .build());
+        }
+        bookingDtos.add(BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2095-01-01T12:00:00"))
+                .end(LocalDateTime.parse("2095-01-03T00:00:00"))
+                .build());
+        bookingDtos.add(BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.parse("2095-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2095-01-02T00:00:00"))
+                .build());
+        bookingDtos.add(BookingCreateDto.builder()
+                .itemId(100L)
+                .start(LocalDateTime.parse("2095-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2095-01-02T00:00:00"))
+                .build());
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        final List<BookingCreateResultDto> results = bookingService.createNewBookings(1L, bookingDtos);
+
+        final long prepareStatementCount = statistics.getPrepareStatementCount();
+        final long entityInsertCount = statistics.getEntityStatistics(Booking.class.getName()).getInsertCount();
+        statistics.setStatisticsEnabled(false);
+        final List<Long> createdIds = results.stream()
+                .filter(result -> result.getBooking() != null)
+                .map(result -> result.getBooking().getId())
+                .collect(Collectors.toList());
+        try {
+            Assertions.assertEquals(count, createdIds.size(), "Count of created Bookings and expected is not match");
+            Assertions.assertEquals(count, entityInsertCount, "Count of inserted Bookings and expected is not match");
+            Assertions.assertTrue(prepareStatementCount < 20, "Count of prepared statements " +
+                    prepareStatementCount + " is not less than 20");
+            Assertions.assertEquals("Item 5 is already booked for period from 2095-01-01T12:00 to 2095-01-03T00:00",
+                    results.get(count).getError(), "Error and expectedError is not match");
+            Assertions.assertEquals("User 1 is owner of item 1", results.get(count + 1).getError(),
+                    "Error and expectedError is not match");
+            Assertions.assertEquals("Item with id 100 not exist", results.get(count + 2).getError(),
+                    "Error and expectedError is not match");
+        } finally {
+            bookingRepository.deleteAllById(createdIds);
+        }
+    }
+
+    @Test
+    @DisplayName("Method findAllBookingsByUserId(long userId, String state, int from, int size) should read a page" +
+            " of 1000 bookings without loading entities")
+    void shouldReadBookingPagesWithoutLoadingEntities() throws Exception {
+        final int count = 1000;
+        final List<BookingCreateDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookingDtos.add(BookingCreateDto.builder()
+                    .itemId(5L)
+                    .start(LocalDateTime.parse("2200-01-01T00:00:00").plusDays(i))
+                    .end(LocalDateTime.parse("2200-01-02T00:00:00").plusDays(i))
+                    .build());
+        }
+        final List<Long> createdIds = bookingService.createNewBookings(1L, bookingDtos).stream()
+                .map(result -> result.getBooking().getId())
+                .collect(Collectors.toList());
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+            final List<BookingResponseDto> bookings = bookingService.findAllBookingsByUserId(1L, "ALL", 0, count);
+            final long entityLoadCount = statistics.getEntityStatistics(Booking.class.getName()).getLoadCount() +
+                    statistics.getEntityStatistics(Item.class.getName()).getLoadCount();
+            statistics.setStatisticsEnabled(false);
+
+            Assertions.assertEquals(count, bookings.size(), "Count of Bookings and expected is not match");
+            Assertions.assertEquals(0, entityLoadCount, "Count of loaded Bookings and Items and expected is not match");
+            Assertions.assertEquals(bookingRepository.findAllByBookerIdOrderByStartDesc(1L).stream()
+                    .map(bookingMapper::bookingToBookingForResponseDto)
+                    .collect(Collectors.toList()), bookings, "Bookings and expectedBookings is not match");
+        } finally {
+            bookingRepository.deleteAllById(createdIds);
+        }
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,42 +15,66 @@ import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceDbImpl;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.service.ItemBookingStatsService;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserBookingDto;
 
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
     private UserService userService;
     @Mock
     private ItemService itemService;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ItemBookingStatsService itemBookingStatsService;
     private BookingMapper bookingMapper = new BookingMapperImpl();
     private BookingService bookingService;
 
     @BeforeEach
     void initiateBookingService() {
         bookingService = new BookingServiceDbImpl(bookingRepository,
+                archivedBookingRepository,
                 userService,
                 itemService,
-                bookingMapper);
+                bookingMapper,
+                new BookingIntervalIndex(bookingRepository, 100, Duration.ofMinutes(1)),
+                itemBookingSummaryService,
+                itemBookingStatsService);
     }
 
     @Test
@@ -227,6 +252,138 @@ public class BookingServiceTest {
         assertEquals(expectedMessage, e.getMessage(), "Exception massage and expectedMassage is not match");
     }
 
+    @Test
+    @DisplayName("Method createNewBooking(long userId, BookingForRequestDto bookingDto) should throw" +
+            " RequestValidationException when Item is already booked for requested period")
+    void shouldThrowExceptionWhenItemAlreadyBooked() throws Exception {
+        final String expectedMessage = "Item 3 is already booked for period from 2093-08-05T00:00 to" +
+                " 2093-08-15T00:00";
+        final BookingCreateDto bookingDto = BookingCreateDto.builder()
+                .start(LocalDateTime.parse("2093-08-05T00:00:00"))
+                .end(LocalDateTime.parse("2093-08-15T00:00:00"))
+                .itemId(3L)
+                .build();
+
+        final User user = User.builder()
+                .id(4L)
+                .name("Иван Иванов")
+                .email("Ivan1992@mail.ru")
+                .build();
+        Mockito.when(userService.checkUser(4L)).thenReturn(user);
+
+        final User itemOwner = User.builder()
+                .id(5L)
+                .name("Максим Акропович")
+                .email("SuperMax2003@mail.ru")
+                .build();
+        final Item item = Item.builder()
+                .id(3L)
+                .name("Байдарка трёхместная Ладога")
+                .description("Каркасно-надувная, в чехле, весла и насос в комплекте")
+                .owner(itemOwner)
+                .available(true)
+                .requestId(null)
+                .build();
+        Mockito.when(itemService.checkItem(3L)).thenReturn(item);
+
+        final Booking existingBooking = Booking.builder()
+                .id(1)
+                .start(LocalDateTime.parse("2093-08-01T00:00:00"))
+                .end(LocalDateTime.parse("2093-08-10T00:00:00"))
+                .item(item)
+                .booker(itemOwner)
+                .status(BookingStatus.APPROVED)
+                .build();
+        Mockito.when(bookingRepository.findBookingsOfItemEndingAfter(eq(3L), anyCollection(), any()))
+                .thenReturn(List.of(existingBooking));
+
+        final Exception e = assertThrows(RequestValidationException.class, () ->
+                bookingService.createNewBooking(4L, bookingDto));
+
+        assertEquals(expectedMessage, e.getMessage(), "Exception massage and expectedMassage is not match");
+        Mockito.verify(bookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Method updateBookingStatus(long userId, long id, boolean approved) should throw" +
+            " RequestValidationException when approved Booking of Item overlaps requested period")
+    void shouldThrowExceptionWhenApprovedBookingOverlaps() throws Exception {
+        final String expectedMessage = "Item 3 is already booked for period from 2023-08-05T00:00 to" +
+                " 2023-08-15T00:00";
+        final User itemOwner = User.builder()
+                .id(5L)
+                .name("Максим Акропович")
+                .email("SuperMax2003@mail.ru")
+                .build();
+        final Item item = Item.builder()
+                .id(3L)
+                .name("Байдарка трёхместная Ладога")
+                .owner(itemOwner)
+                .available(true)
+                .build();
+        final Booking booking = Booking.builder()
+                .id(7L)
+                .start(LocalDateTime.parse("2023-08-05T00:00:00"))
+                .end(LocalDateTime.parse("2023-08-15T00:00:00"))
+                .item(item)
+                .booker(new User())
+                .status(BookingStatus.WAITING)
+                .build();
+
+        Mockito.when(bookingRepository.lockItemOfOwnerBooking(7L, 5L)).thenReturn(Optional.of(3L));
+        Mockito.when(bookingRepository.approveBookingIfNotOverlapping(7L, 5L)).thenReturn(0);
+        Mockito.when(bookingRepository.findById(7L)).thenReturn(Optional.of(booking));
+
+        final Exception e = assertThrows(RequestValidationException.class, () ->
+                bookingService.updateBookingStatus(5L, 7L, true));
+
+        assertEquals(expectedMessage, e.getMessage(), "Exception massage and expectedMassage is not match");
+        final InOrder inOrder = Mockito.inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).lockItemOfOwnerBooking(7L, 5L);
+        inOrder.verify(bookingRepository).approveBookingIfNotOverlapping(7L, 5L);
+        Mockito.verify(bookingRepository, Mockito.never()).findByIdWithItemAndBooker(anyLong());
+    }
+
+    @Test
+    @DisplayName("Method updateBookingStatus(long userId, long id, boolean approved) should explain why status of" +
+            " Booking was not updated")
+    void shouldThrowExceptionWhenStatusNotUpdated() throws Exception {
+        final User itemOwner = User.builder()
+                .id(5L)
+                .build();
+        final Booking booking = Booking.builder()
+                .id(7L)
+                .item(Item.builder().id(3L).owner(itemOwner).build())
+                .booker(new User())
+                .status(BookingStatus.REJECTED)
+                .build();
+
+        Mockito.when(bookingRepository.lockItemOfOwnerBooking(7L, 4L)).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.lockItemOfOwnerBooking(7L, 5L)).thenReturn(Optional.of(3L));
+        Mockito.when(bookingRepository.approveBookingIfNotOverlapping(7L, 5L)).thenReturn(0);
+        Mockito.when(bookingRepository.findById(7L)).thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.lockItemOfOwnerBooking(100L, 5L)).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.findById(100L)).thenReturn(Optional.empty());
+
+        final Exception notOwnerException = assertThrows(AccessNotAllowedException.class, () ->
+                bookingService.updateBookingStatus(4L, 7L, true));
+
+        assertEquals("User 4 does not have access to target booking", notOwnerException.getMessage(),
+                "Exception massage and expectedMassage is not match");
+
+        final Exception notWaitingException = assertThrows(RequestValidationException.class, () ->
+                bookingService.updateBookingStatus(5L, 7L, true));
+
+        assertEquals("Booking 7 is already rejected", notWaitingException.getMessage(),
+                "Exception massage and expectedMassage is not match");
+
+        final Exception notFoundException = assertThrows(IdNotFoundException.class, () ->
+                bookingService.updateBookingStatus(5L, 100L, false));
+
+        assertEquals("Booking with id 100 not exist", notFoundException.getMessage(),
+                "Exception massage and expectedMassage is not match");
+    }
+
     @Test
     @DisplayName("Methods findBooking, findAllBookingsByUserId, findAllBookingsByOwnerId, createNewBooking and" +
             " updateBookingStatus should throw IdNotFoundException when User is not found")
@@ -270,4 +427,30 @@ public class BookingServiceTest {
         Assertions.assertEquals(expectedMessage, updateBookingStatusException.getMessage(), "Exception massage and" +
                 " expectedMassage is not match");
     }
+
+    @Test
+    @DisplayName("Method findAllBookingsByUserId(long userId, String state, int from, int size) should read page of" +
+            " live and archived bookings with one query")
+    void shouldReadLiveAndArchivedBookingsWithOneQuery() throws Exception {
+        final List<Object[]> bookings = List.of(
+                new Object[]{BigInteger.valueOf(6), Timestamp.valueOf("2023-12-24 00:00:00"),
+                        Timestamp.valueOf("2023-12-25 00:00:00"), "APPROVED", BigInteger.valueOf(2),
+                        BigInteger.valueOf(3), "Байдарка трёхместная Ладога"},
+                new Object[]{BigInteger.valueOf(5), Timestamp.valueOf("2023-12-24 00:00:00"),
+                        Timestamp.valueOf("2023-12-25 00:00:00"), "REJECTED", BigInteger.valueOf(2),
+                        BigInteger.valueOf(3), "Байдарка трёхместная Ладога"});
+
+        Mockito
+                .when(archivedBookingRepository.findLiveAndArchivedBookingsOfBooker(2L, new OffsetLimitPageable(1, 2)))
+                .thenReturn(bookings);
+
+        final List<BookingResponseDto> foundBookings = bookingService.findAllBookingsByUserId(2L, "ALL", 1, 2);
+
+        assertEquals(List.of(6L, 5L), foundBookings.stream()
+                .map(BookingResponseDto::getId)
+                .collect(Collectors.toList()), "BookingsIds and expectedBookingsIds is not match");
+        assertEquals("Байдарка трёхместная Ладога", foundBookings.get(0).getItem().getName(), "ItemName and" +
+                " expectedItemName is not match");
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
 }
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.repository.CommentEligibilityRepository;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentEligibilityIndexTest {
+    @Mock
+    private CommentEligibilityRepository commentEligibilityRepository;
+    private CommentEligibilityIndex commentEligibilityIndex;
+
+    @BeforeEach
+    void initiateCommentEligibilityIndex() {
+        commentEligibilityIndex = new CommentEligibilityIndex(commentEligibilityRepository);
+    }
+
+    @Test
+    @DisplayName("Method isEligible(long userId, long itemId) should query the database only once for eligible user")
+    void shouldKeepEligibleUserInMemory() throws Exception {
+        Mockito
+                .when(commentEligibilityRepository.isEligible(eq(2L), eq(3L), any()))
+                .thenReturn(true);
+
+        assertTrue(commentEligibilityIndex.isEligible(2L, 3L), "User is not eligible");
+        assertTrue(commentEligibilityIndex.isEligible(2L, 3L), "User is not eligible");
+
+        Mockito.verify(commentEligibilityRepository, Mockito.times(1)).isEligible(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Method isEligible(long userId, long itemId) should return false for user without completed" +
+            " bookings")
+    void shouldNotRememberNotEligibleUser() throws Exception {
+        Mockito
+                .when(commentEligibilityRepository.isEligible(eq(4L), eq(2L), any()))
+                .thenReturn(false);
+
+        assertFalse(commentEligibilityIndex.isEligible(4L, 2L), "User is eligible");
+        assertFalse(commentEligibilityIndex.isEligible(4L, 2L), "User is eligible");
+
+        Mockito.verify(commentEligibilityRepository, Mockito.times(2)).isEligible(eq(4L), eq(2L), any());
+    }
+}
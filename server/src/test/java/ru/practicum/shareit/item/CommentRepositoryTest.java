@@ -4,10 +4,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,14 +19,28 @@ public class CommentRepositoryTest {
     private CommentRepository commentRepository;
 
     @Test
-    @DisplayName("Method findAllByItemId(Long itemId) should return correct list of comments")
-    void shouldReturnAllCommentsByItemId() throws Exception {
-        final List<Long> expectedCommentsIds = List.of(1L, 2L);
+    @DisplayName("Method findLatestCommentsOfItems(Collection<Long> itemIds, int limit) should return at most limit" +
+            " latest comments of every item")
+    void shouldReturnLatestCommentsOfItems() throws Exception {
+        final List<Long> expectedCommentsIds = List.of(1L);
 
-        final List<Long> commentIds = commentRepository.findAllByItemId(3L).stream()
-                .map(Comment::getId)
+        final List<Long> commentIds = commentRepository.findLatestCommentsOfItems(List.of(1L, 3L), 1).stream()
+                .map(CommentView::getId)
                 .collect(Collectors.toList());
 
         assertEquals(expectedCommentsIds, commentIds, "CommentIds and expectedCommentsIds is not match");
     }
+
+    @Test
+    @DisplayName("Method countCommentsOfItems(Collection<Long> itemIds) should return count of comments of every item" +
+            " with comments")
+    void shouldReturnCountsOfCommentsOfItems() throws Exception {
+        final Map<Long, Long> expectedCounts = Map.of(3L, 2L);
+
+        final Map<Long, Long> counts = commentRepository.countCommentsOfItems(List.of(1L, 3L)).stream()
+                .collect(Collectors.toMap(row -> ((Number) row[0]).longValue(),
+                        row -> ((Number) row[1]).longValue()));
+
+        assertEquals(expectedCounts, counts, "Counts and expectedCounts is not match");
+    }
 }
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemExtendedResponseDto;
+import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class ItemCommentsServiceIntegrationTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    @DisplayName("Method findItem(long userId, long id) should embed latest comments and count of all comments," +
+            " method findItemComments(long userId, long itemId, int from, int size) should return the rest")
+    void shouldReturnLatestCommentsAndPageOfComments() throws Exception {
+        final List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            comments.add(Comment.builder()
+                    .text("Комментарий " + i)
+                    .author(User.builder().id(3L).build())
+                    .item(Item.builder().id(4L).build())
+                    .created(LocalDateTime.parse("2090-01-01T00:00:00").plusDays(i))
+                    .build());
+        }
+        commentRepository.saveAll(comments);
+
+        try {
+            final ItemExtendedResponseDto item = itemService.findItem(2L, 4L);
+            final List<CommentResponseDto> restComments = itemService.findItemComments(2L, 4L, 10, 20);
+
+            assertEquals(12, item.getCommentsCount(), "CommentsCount and expectedCommentsCount is not match");
+            assertEquals(10, item.getComments().size(), "Size of comments and expectedSize is not match");
+            assertEquals("Комментарий 11", item.getComments().get(0).getText(),
+                    "Text of latest comment and expectedText is not match");
+            assertEquals(List.of("Комментарий 1", "Комментарий 0"), restComments.stream()
+                            .map(CommentResponseDto::getText)
+                            .collect(Collectors.toList()),
+                    "Texts of comments and expectedTexts is not match");
+            assertEquals("Сергей Иванов", restComments.get(0).getAuthorName(),
+                    "AuthorName and expectedAuthorName is not match");
+        } finally {
+            commentRepository.deleteAll(comments);
+        }
+    }
+}
@@ -13,17 +13,22 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.ExceptionViolation;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
 import ru.practicum.shareit.item.dto.ItemExtendedResponseDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -118,6 +123,26 @@ public class ItemControllerTest {
                 .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(testItems)));
     }
 
+    @Test
+    @DisplayName("GET /items/{id}/comments returns HTTP-response with status code 200, content type application/json" +
+            " and correct page of comments")
+    void shouldReturnComments() throws Exception {
+        final List<CommentResponseDto> comments = List.of(CommentResponseDto.builder()
+                .id(2L)
+                .text("На трехместной самое то вдвоём с грузом")
+                .authorName("Сергей Иванов")
+                .created(LocalDateTime.parse("2023-07-02T00:00:00"))
+                .build());
+
+        Mockito.when(itemService.findItemComments(1L, 3L, 1, 1)).thenReturn(comments);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/3/comments?from=1&size=1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(comments)));
+    }
+
     @Test
     @DisplayName("GET /items/search?text={text} returns HTTP-response with status code 200, content type " +
             "application/json and correct searched items")
@@ -147,6 +172,64 @@ public class ItemControllerTest {
                 .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(testItems)));
     }
 
+    @Test
+    @DisplayName("GET /items/search?text={text}&sort=relevance returns HTTP-response with status code 200, content" +
+            " type application/json and items ranked by relevance")
+    void shouldReturnItemsSearchedByRelevance() throws Exception {
+        final List<ItemResponseDto> testItems = List.of(ItemResponseDto.builder()
+                .id(3L)
+                .name("Дрель аккумуляторная")
+                .description("В комплекте запасной аккумулятор и набор бит")
+                .available(true)
+                .requestId(null)
+                .build());
+
+        Mockito.when(itemService.searchItemByRelevance(1L, "аккумулятор", 1, 10)).thenReturn(testItems);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text=аккумулятор&sort=relevance&from=1&size=10")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(testItems)));
+    }
+
+    @Test
+    @DisplayName("GET /items/search?text={text}&fuzzy=true returns HTTP-response with status code 200, content type" +
+            " application/json and items with similar tokens")
+    void shouldReturnItemsSearchedFuzzy() throws Exception {
+        final List<ItemResponseDto> testItems = List.of(ItemResponseDto.builder()
+                .id(1L)
+                .name("Дрель ударная Bosh")
+                .description("Мощность 7000W")
+                .available(true)
+                .requestId(null)
+                .build());
+
+        Mockito.when(itemService.searchItemFuzzy(1L, "дрел", 0, 20)).thenReturn(testItems);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text=дрел&fuzzy=true&sort=relevance")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(testItems)));
+    }
+
+    @Test
+    @DisplayName("GET /items/suggest?prefix={prefix} returns HTTP-response with status code 200, content type" +
+            " application/json and completions of prefix")
+    void shouldReturnSuggestions() throws Exception {
+        final List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto("дрель", 2),
+                new ItemSuggestionDto("диодный", 1));
+
+        Mockito.when(itemService.suggestItemNames("д", 10)).thenReturn(suggestions);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/suggest?prefix=д")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(suggestions)));
+    }
+
     @Test
     @DisplayName("POST /items returns HTTP-response with status code 200, content type application/json and correct " +
             "created item")
@@ -255,4 +338,59 @@ public class ItemControllerTest {
                 .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(testComment)));
     }
+
+    @Test
+    @DisplayName("GET /items/{id}/availability returns HTTP-response with status code 200, content type" +
+            " application/json and free and busy periods of item")
+    void shouldReturnItemAvailability() throws Exception {
+        final LocalDateTime from = LocalDateTime.parse("2090-01-01T00:00:00");
+        final LocalDateTime to = LocalDateTime.parse("2090-02-01T00:00:00");
+        final LocalDateTime bookingStart = LocalDateTime.parse("2090-01-10T00:00:00");
+        final LocalDateTime bookingEnd = LocalDateTime.parse("2090-01-12T00:00:00");
+        final ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .free(List.of(new BookingPeriodDto(from, bookingStart), new BookingPeriodDto(bookingEnd, to)))
+                .busy(List.of(new BookingPeriodDto(bookingStart, bookingEnd)))
+                .build();
+
+        Mockito.when(itemService.findItemAvailability(2L, 1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("from", "2090-01-01T00:00:00")
+                        .param("to", "2090-02-01T00:00:00"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(availability)));
+    }
+
+    @Test
+    @DisplayName("GET /items/stats returns HTTP-response with status code 200, content type application/json and" +
+            " booking counters of items of user")
+    void shouldReturnItemStats() throws Exception {
+        final LocalDate from = LocalDate.parse("2090-01-01");
+        final LocalDate to = LocalDate.parse("2090-01-31");
+        final List<ItemStatsDto> stats = List.of(ItemStatsDto.builder()
+                .itemId(1L)
+                .start(LocalDate.parse("2090-01-02"))
+                .bookings(2)
+                .approved(1)
+                .rejected(1)
+                .bookedHours(24.0)
+                .approvalRatio(0.5)
+                .build());
+
+        Mockito.when(itemService.findItemStats(2L, "WEEK", from, to)).thenReturn(stats);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/stats")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("bucket", "WEEK")
+                        .param("from", "2090-01-01")
+                        .param("to", "2090-01-31"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(stats)));
+    }
 }
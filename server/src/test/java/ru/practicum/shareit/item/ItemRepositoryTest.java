@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetLimitPageable;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,27 +34,14 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    @DisplayName("Method findItemsByNameOrDescription(String text, Pageable pageable) should return correct list of" +
-            " items")
-    void shouldReturnAllItemsByNameOrDescription() throws Exception {
-        final List<Long> expectedItemsIdsForName = List.of(1L, 2L);
-
-        final List<Long> itemsIdsForName = itemRepository
-                .findItemsByNameOrDescription("Дрель", PageRequest.of(0, 20)).stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        assertEquals(expectedItemsIdsForName, itemsIdsForName, "ItemsIdsForName and expectedItemsIdsForName" +
-                " is not match");
-
-        final List<Long> expectedItemsIdsForDescription = List.of(5L);
-
-        final List<Long> itemsIdsForDescription = itemRepository
-                .findItemsByNameOrDescription("для плотной ткани", PageRequest.of(0, 20)).stream()
+    @DisplayName("Method findAllByOwnerIdOrderById(long ownerId, Pageable pageable) should return items starting" +
+            " from offset of OffsetLimitPageable")
+    void shouldReturnItemsByOwnerIdFromOffset() throws Exception {
+        final List<Long> itemsIds = itemRepository
+                .findAllByOwnerIdOrderById(1L, new OffsetLimitPageable(1, 2)).stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        assertEquals(expectedItemsIdsForDescription, itemsIdsForDescription, "ItemsIdsForDescription and" +
-                " expectedItemsIdsForDescription is not match");
+        assertEquals(List.of(3L, 4L), itemsIds, "ItemsIds and expectedItemsIds is not match");
     }
 }
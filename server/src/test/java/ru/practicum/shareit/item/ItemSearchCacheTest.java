@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ItemSearchCacheTest {
+    private final List<ItemResponseDto> page = List.of(ItemResponseDto.builder()
+            .id(1L)
+            .name("Дрель ударная Bosh")
+            .description("Мощность 7000W")
+            .available(true)
+            .build());
+    private ItemSearchCache itemSearchCache;
+
+    @BeforeEach
+    void initiateItemSearchCache() {
+        itemSearchCache = new ItemSearchCache(2);
+    }
+
+    @Test
+    @DisplayName("Method get(Key key) should return page cached for the same tokens in any order")
+    void shouldReturnCachedPage() throws Exception {
+        itemSearchCache.put(key(0, "дрель", "bosh"), page, itemSearchCache.version());
+
+        assertEquals(page, itemSearchCache.get(key(0, "bosh", "дрель")), "Page and expectedPage is not match");
+        assertNull(itemSearchCache.get(key(20, "bosh", "дрель")), "Page of other offset should not be cached");
+    }
+
+    @Test
+    @DisplayName("Method put(Key key, List<ItemResponseDto> page, long version) should evict least recently used" +
+            " page when cache is full")
+    void shouldEvictLeastRecentlyUsedPage() throws Exception {
+        itemSearchCache.put(key(0, "дрель"), page, itemSearchCache.version());
+        itemSearchCache.put(key(0, "палатка"), page, itemSearchCache.version());
+        itemSearchCache.get(key(0, "дрель"));
+        itemSearchCache.put(key(0, "котелок"), page, itemSearchCache.version());
+
+        assertEquals(page, itemSearchCache.get(key(0, "дрель")), "Page and expectedPage is not match");
+        assertNull(itemSearchCache.get(key(0, "палатка")), "Least recently used page should be evicted");
+    }
+
+    @Test
+    @DisplayName("Method invalidate(Collection<String> oldTokens, Collection<String> newTokens) should drop only" +
+            " pages of queries matching old or new tokens of item")
+    void shouldDropOnlyMatchingPages() throws Exception {
+        itemSearchCache = new ItemSearchCache(100);
+        itemSearchCache.put(key(0, "дре"), page, itemSearchCache.version());
+        itemSearchCache.put(key(0, "дрель", "makita"), page, itemSearchCache.version());
+        itemSearchCache.put(key(0, "перфоратор"), page, itemSearchCache.version());
+        itemSearchCache.put(key(0, "палатка"), page, itemSearchCache.version());
+
+        itemSearchCache.invalidate(List.of("дрель", "ударная", "bosh"), List.of("перфоратор", "bosh"));
+
+        assertNull(itemSearchCache.get(key(0, "дре")), "Page matching old tokens should be dropped");
+        assertNull(itemSearchCache.get(key(0, "перфоратор")), "Page matching new tokens should be dropped");
+        assertEquals(page, itemSearchCache.get(key(0, "дрель", "makita")), "Page and expectedPage is not match");
+        assertEquals(page, itemSearchCache.get(key(0, "палатка")), "Page and expectedPage is not match");
+    }
+
+    @Test
+    @DisplayName("Method put(Key key, List<ItemResponseDto> page, long version) should not cache page read before" +
+            " change of items")
+    void shouldNotCachePageReadBeforeChange() throws Exception {
+        final long version = itemSearchCache.version();
+
+        itemSearchCache.invalidate(List.of("палатка"), List.of());
+        itemSearchCache.put(key(0, "дрель"), page, version);
+
+        assertNull(itemSearchCache.get(key(0, "дрель")), "Stale page should not be cached");
+    }
+
+    private ItemSearchCache.Key key(long offset, String... tokens) {
+        return new ItemSearchCache.Key(List.of(tokens), offset, 20);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemSearchIndexDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+@AutoConfigureTestDatabase
+public class ItemSearchIndexEndpointTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @MockBean
+    private ItemService itemService;
+    @LocalServerPort
+    private int serverPort;
+    @LocalManagementPort
+    private int managementPort;
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("POST /actuator/searchindex on the management port returns HTTP-response with status code 200 and" +
+            " size of rebuilt index")
+    void shouldRebuildSearchIndex() throws Exception {
+        final ItemSearchIndexDto indexStats = ItemSearchIndexDto.builder()
+                .items(7)
+                .tokens(45)
+                .build();
+
+        Mockito.when(itemService.rebuildSearchIndex()).thenReturn(indexStats);
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        final ResponseEntity<String> response = restTemplate.postForEntity("http://localhost:" + managementPort +
+                "/actuator/searchindex", new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Status and expectedStatus is not match");
+        assertEquals(objectMapper.valueToTree(indexStats), objectMapper.readTree(response.getBody()),
+                "IndexStats and expectedIndexStats is not match");
+    }
+
+    @Test
+    @DisplayName("POST /actuator/searchindex on the server port returns HTTP-response with status code 404")
+    void shouldNotRebuildSearchIndexOnServerPort() throws Exception {
+        final ResponseEntity<String> response = restTemplate.postForEntity("http://localhost:" + serverPort +
+                "/actuator/searchindex", null, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(), "Status and expectedStatus is not match");
+        Mockito.verify(itemService, Mockito.never()).rebuildSearchIndex();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void initiateItemSearchIndex() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, new ItemSearchCache(100), Duration.ofMinutes(1));
+
+        Mockito
+                .when(itemRepository.findAllByAvailableTrue())
+                .thenReturn(List.of(
+                        item(1L, 1L, "Дрель ударная Bosh", "Мощность 7000W", true),
+                        item(2L, 3L, "Дрель аккумуляторная", "В комплекте запасной аккумулятор и набор бит", true),
+                        item(4L, 1L, "Набор походных котелков", "3 штуки: 3, 4, 5 литров", true)));
+
+        assertEquals(ItemSearchIndexDto.builder().items(3).tokens(20).build(), itemSearchIndex.rebuild(),
+                "Index stats and expectedStats is not match");
+    }
+
+    @Test
+    @DisplayName("Method search(String text, long offset, int limit) should intersect postings of query tokens" +
+            " matched as prefixes")
+    void shouldSearchByTokenPrefixes() throws Exception {
+        assertEquals(List.of(1L, 2L), search("дРелЬ", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(2L), search("дрель аккум", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(2L, 4L), search("НАБОР", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(2L), search("набор, дрель!", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(2L), search("дрель", 1, 1), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), search("фофудья", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), search("?!", 0, 20), "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method index(Item item) should replace tokens of updated item and remove unavailable item")
+    void shouldUpdateIndexedItems() throws Exception {
+        itemSearchIndex.index(item(1L, 1L, "Перфоратор Bosh", "Мощность 7000W", true));
+        itemSearchIndex.index(item(2L, 3L, "Дрель аккумуляторная", "В комплекте запасной аккумулятор", false));
+        itemSearchIndex.index(item(8L, 2L, "Дрель безударная", "Почти новая", true));
+
+        assertEquals(List.of(8L), search("дрель", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(1L), search("перфоратор", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), search("аккумулятор", 0, 20), "ItemsIds and expectedItemsIds is not match");
+
+        itemSearchIndex.removeItemsOfOwner(1L);
+
+        assertEquals(List.of(), search("мощность", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(8L), search("дрель", 0, 20), "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method searchByRelevance(String text, long offset, int limit) should order matched items by BM25" +
+            " score with name matches weighted higher and page the ranked list")
+    void shouldSearchByRelevance() throws Exception {
+        itemSearchIndex.index(item(10L, 2L, "Аккумулятор Makita", "Подходит для шуруповерта Makita", true));
+        itemSearchIndex.index(item(11L, 2L, "Зарядное устройство", "Подходит для аккумулятор Bosh", true));
+
+        assertEquals(List.of(2L, 10L, 11L), searchByRelevance("аккумулятор", 0, 20),
+                "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(4L, 2L), searchByRelevance("набор", 0, 20),
+                "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(10L), searchByRelevance("аккумулятор", 1, 1),
+                "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), searchByRelevance("аккумулятор", 3, 20),
+                "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method suggest(String prefix, int limit) should complete last token of prefix with name tokens" +
+            " of available items ordered by count of items")
+    void shouldSuggestNameTokens() throws Exception {
+        itemSearchIndex.index(item(10L, 2L, "Палатка", "Для пилы места нет", true));
+        itemSearchIndex.index(item(11L, 2L, "Палатка двухместная", "Почти новая", true));
+        itemSearchIndex.index(item(12L, 2L, "Пила", "Ручная", true));
+        itemSearchIndex.index(item(13L, 2L, "Пилка для ногтей", "Пилит", false));
+
+        assertEquals(List.of(new ItemSuggestionDto("палатка", 2), new ItemSuggestionDto("пила", 1),
+                        new ItemSuggestionDto("походных", 1)), itemSearchIndex.suggest("П", 10),
+                "Suggestions and expectedSuggestions is not match");
+        assertEquals(List.of(new ItemSuggestionDto("палатка", 2)), itemSearchIndex.suggest("п", 1),
+                "Suggestions and expectedSuggestions is not match");
+        assertEquals(List.of(new ItemSuggestionDto("ударная", 1)), itemSearchIndex.suggest("дрель у", 10),
+                "Suggestions and expectedSuggestions is not match");
+        assertEquals(List.of(new ItemSuggestionDto("набор", 1)), itemSearchIndex.suggest("набо", 10),
+                "Suggestions and expectedSuggestions is not match");
+
+        itemSearchIndex.index(item(11L, 2L, "Тент", "Почти новый", true));
+
+        assertEquals(List.of(new ItemSuggestionDto("палатка", 1)), itemSearchIndex.suggest("пал", 10),
+                "Suggestions and expectedSuggestions is not match");
+        assertEquals(List.of(), itemSearchIndex.suggest(" -", 10),
+                "Suggestions and expectedSuggestions is not match");
+    }
+
+    @Test
+    @DisplayName("Method searchFuzzy(String text, long offset, int limit) should find items with misspelled tokens" +
+            " ordered by edit distance")
+    void shouldSearchFuzzy() throws Exception {
+        assertEquals(List.of(1L, 2L), searchFuzzy("дрел", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(1L), searchFuzzy("дрэль ударня", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(4L), searchFuzzy("кателков", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), searchFuzzy("дрл", 0, 20), "ItemsIds and expectedItemsIds is not match");
+
+        itemSearchIndex.index(item(10L, 2L, "Дрели", "Две штуки", true));
+
+        assertEquals(List.of(10L, 1L, 2L), searchFuzzy("дрели", 0, 20),
+                "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(1L), searchFuzzy("дрели", 1, 1), "ItemsIds and expectedItemsIds is not match");
+
+        itemSearchIndex.index(item(10L, 2L, "Дрели", "Две штуки", false));
+
+        assertEquals(List.of(1L, 2L), searchFuzzy("дрели", 0, 20), "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method searchFuzzy(String text, long offset, int limit) should find items with misspelled short" +
+            " tokens sharing no trigrams with the query")
+    void shouldSearchFuzzyShortTokens() throws Exception {
+        itemSearchIndex.index(item(10L, 2L, "Таз", "Медный", true));
+        itemSearchIndex.index(item(11L, 2L, "Пила", "Ручная", true));
+
+        assertEquals(List.of(10L), searchFuzzy("тиз", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(11L), searchFuzzy("пола", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(11L), searchFuzzy("пыло", 0, 20), "ItemsIds and expectedItemsIds is not match");
+        assertEquals(List.of(), searchFuzzy("дубы", 0, 20), "ItemsIds and expectedItemsIds is not match");
+    }
+
+    private List<Long> searchFuzzy(String text, long offset, int limit) {
+        return itemSearchIndex.searchFuzzy(text, offset, limit).stream()
+                .map(ItemResponseDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> searchByRelevance(String text, long offset, int limit) {
+        return itemSearchIndex.searchByRelevance(text, offset, limit).stream()
+                .map(ItemResponseDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> search(String text, long offset, int limit) {
+        return itemSearchIndex.search(text, offset, limit).stream()
+                .map(ItemResponseDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(long id, long ownerId, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .owner(User.builder().id(ownerId).build())
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -1,19 +1,38 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessNotAllowedException;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.exception.RequestValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.entity.CommentEligibility;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.entity.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.CommentEligibilityRepository;
+import ru.practicum.shareit.item.repository.ItemBookingStatsRepository;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingSummaryScheduler;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.entity.User;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +45,26 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ItemServiceIntegrationTest {
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @Autowired
+    private ItemBookingSummaryScheduler itemBookingSummaryScheduler;
+    @Autowired
+    private CommentEligibilityRepository commentEligibilityRepository;
+    @Autowired
+    private CommentEligibilityIndex commentEligibilityIndex;
+    @Autowired
+    private ItemBookingStatsRepository itemBookingStatsRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     @DisplayName("Method findItem(long userId, long id) should return expected item")
@@ -51,6 +90,7 @@ public class ItemServiceIntegrationTest {
                 .lastBooking(null)
                 .nextBooking(null)
                 .comments(itemComments)
+                .commentsCount(2)
                 .build();
 
         final ItemExtendedResponseDto item = itemService.findItem(2L, 3L);
@@ -88,6 +128,7 @@ public class ItemServiceIntegrationTest {
                         .bookerId(2L)
                         .build())
                 .comments(itemComments)
+                .commentsCount(2)
                 .build();
 
         final ItemExtendedResponseDto item = itemService.findItem(1L, 3L);
@@ -233,6 +274,7 @@ public class ItemServiceIntegrationTest {
                         .bookerId(2L)
                         .build())
                 .comments(expectedItem2Comments)
+                .commentsCount(2)
                 .build();
         final ItemExtendedResponseDto expectedItem3 = ItemExtendedResponseDto.builder()
                 .id(4)
@@ -282,4 +324,343 @@ public class ItemServiceIntegrationTest {
 
         assertTrue(items.isEmpty(), "Items list is not empty");
     }
+
+    @Test
+    @DisplayName("Method searchItem(long userId, String text, int from, int size) should find Items by token" +
+            " prefixes and reflect updates of Items")
+    void shouldSearchItemsByIndexedTokens() throws Exception {
+        final ItemCreateUpdateDto unavailableItemDto = ItemCreateUpdateDto.builder()
+                .available(false)
+                .build();
+        final ItemCreateUpdateDto availableItemDto = ItemCreateUpdateDto.builder()
+                .available(true)
+                .build();
+
+        assertEquals(List.of(7L), ids(itemService.searchItem(2L, "ПРОЖ диод", 0, 20)),
+                "ItemsIds and expectedItemsIds is not match");
+
+        itemService.updateItem(4L, 7L, unavailableItemDto);
+        try {
+            assertEquals(List.of(), ids(itemService.searchItem(2L, "прожектор", 0, 20)),
+                    "ItemsIds and expectedItemsIds is not match");
+        } finally {
+            itemService.updateItem(4L, 7L, availableItemDto);
+        }
+
+        assertEquals(List.of(7L), ids(itemService.searchItem(2L, "прожектор", 0, 20)),
+                "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method findItem(long userId, long id) should return next booking stored in booking summary when" +
+            " booking is approved")
+    void shouldReturnNextBookingFromSummaryWhenBookingApproved() throws Exception {
+        final long bookingId = bookingService.createNewBooking(1L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2094-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2094-01-10T00:00:00"))
+                .build()).getId();
+
+        try {
+            bookingService.updateBookingStatus(4L, bookingId, true);
+
+            final ItemBookingSummary summary = itemBookingSummaryRepository.findById(5L).orElseThrow();
+            final ItemExtendedResponseDto item = itemService.findItem(4L, 5L);
+
+            assertEquals(bookingId, summary.getNextBookingId(), "NextBookingId and expectedNextBookingId is not match");
+            assertEquals(LocalDateTime.parse("2094-01-01T00:00:00"), summary.getRefreshAt(),
+                    "RefreshAt and expectedRefreshAt is not match");
+            assertEquals(new BookingItemDto(bookingId, 1L), item.getNextBooking(),
+                    "NextBooking and expectedNextBooking is not match");
+        } finally {
+            bookingRepository.deleteById(bookingId);
+            itemBookingSummaryRepository.deleteById(5L);
+        }
+    }
+
+    @Test
+    @DisplayName("Method refreshStaleSummaries() should replace stale booking summaries and create missing ones")
+    void shouldRefreshStaleSummaries() throws Exception {
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(2L)
+                .nextBookingId(100L)
+                .nextBookerId(100L)
+                .refreshAt(LocalDateTime.parse("2020-01-01T00:00:00"))
+                .build());
+
+        final ItemExtendedResponseDto item = itemService.findItem(3L, 2L);
+
+        assertEquals(new BookingItemDto(5L, 2L), item.getLastBooking(), "LastBooking and expectedLastBooking is" +
+                " not match");
+        assertNull(item.getNextBooking(), "NextBooking is not null");
+
+        itemBookingSummaryScheduler.refreshStaleSummaries();
+
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(2L).orElseThrow();
+        assertEquals(5L, summary.getLastBookingId(), "LastBookingId and expectedLastBookingId is not match");
+        assertNull(summary.getNextBookingId(), "NextBookingId is not null");
+        assertNull(summary.getRefreshAt(), "RefreshAt is not null");
+        assertEquals(7, itemBookingSummaryRepository.count(), "Count of summaries and expectedCount is not match");
+
+        itemBookingSummaryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Method findAllItems(long userId, int from, int size) should execute the same number of queries" +
+            " for any number of items on page")
+    void shouldNotDependQueryCountOnPageSize() throws Exception {
+        itemBookingSummaryRepository.deleteAll();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        final int singleItemPageSize = itemService.findAllItems(2L, 0, 20).size();
+        final long singleItemPageQueryCount = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        final int fullPageSize = itemService.findAllItems(1L, 0, 20).size();
+        final long fullPageQueryCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(1, singleItemPageSize, "Size of page and expectedSize is not match");
+        assertEquals(3, fullPageSize, "Size of page and expectedSize is not match");
+        assertEquals(singleItemPageQueryCount, fullPageQueryCount, "Query count of full page and query count of" +
+                " single item page is not match");
+    }
+
+    @Test
+    @DisplayName("Method findAllItems(long userId, int from, int size) should not count items of user when page" +
+            " is full")
+    void shouldNotCountItemsOfFullPage() throws Exception {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        final int partialPageSize = itemService.findAllItems(1L, 0, 20).size();
+        final long partialPageQueryCount = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        final int fullPageSize = itemService.findAllItems(1L, 0, 3).size();
+        final long fullPageQueryCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(3, partialPageSize, "Size of page and expectedSize is not match");
+        assertEquals(3, fullPageSize, "Size of page and expectedSize is not match");
+        assertEquals(partialPageQueryCount, fullPageQueryCount, "Query count of full page and query count of" +
+                " partial page is not match");
+    }
+
+    @Test
+    @DisplayName("Method findAllItems(long userId, int from, int size) should load only size items starting from" +
+            " item number from")
+    void shouldReturnItemsFromOffset() throws Exception {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        final List<ItemExtendedResponseDto> items = itemService.findAllItems(1L, 1, 1);
+        final long loadedItemsCount = statistics.getEntityStatistics(Item.class.getName()).getLoadCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(1, items.size(), "Size of page and expectedSize is not match");
+        assertEquals(3L, items.get(0).getId(), "ItemId and expectedItemId is not match");
+        assertEquals(1, loadedItemsCount, "Count of loaded items and expectedCount is not match");
+        assertEquals(List.of(2L), ids(itemService.searchItem(2L, "дрель", 1, 1)),
+                "ItemsIds and expectedItemsIds is not match");
+    }
+
+    @Test
+    @DisplayName("Method refresh() should apply changes of items written to the database bypassing the service")
+    void shouldRefreshSearchIndexFromDatabase() throws Exception {
+        final Item item = itemRepository.save(Item.builder()
+                .name("Гамак туристический")
+                .description("Выдерживает 150 кг")
+                .available(true)
+                .owner(User.builder().id(1L).build())
+                .build());
+
+        try {
+            assertEquals(List.of(), ids(itemService.searchItem(2L, "гамак", 0, 20)),
+                    "ItemsIds and expectedItemsIds is not match");
+
+            itemSearchIndex.refresh();
+
+            assertEquals(List.of(item.getId()), ids(itemService.searchItem(2L, "гамак", 0, 20)),
+                    "ItemsIds and expectedItemsIds is not match");
+
+            item.setAvailable(false);
+            itemRepository.save(item);
+            itemSearchIndex.refresh();
+
+            assertEquals(List.of(), ids(itemService.searchItem(2L, "гамак", 0, 20)),
+                    "ItemsIds and expectedItemsIds is not match");
+
+            item.setAvailable(true);
+            itemRepository.save(item);
+            itemSearchIndex.refresh();
+            itemRepository.deleteById(item.getId());
+            itemSearchIndex.refresh();
+
+            assertEquals(List.of(), ids(itemService.searchItem(2L, "гамак", 0, 20)),
+                    "ItemsIds and expectedItemsIds is not match");
+        } finally {
+            if (itemRepository.existsById(item.getId())) {
+                itemRepository.deleteById(item.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Method findItemComments(long userId, long itemId, int from, int size) should throw" +
+            " IdNotFoundException when Item not found")
+    void shouldThrowExceptionWhenCommentsOfUnknownItemRequested() throws Exception {
+        final String expectedMessage = "Item with id 100 not exist";
+
+        final Exception exception = assertThrows(IdNotFoundException.class, () ->
+                itemService.findItemComments(2L, 100L, 0, 20));
+
+        assertEquals(expectedMessage, exception.getMessage(), "Exception massage and expectedMassage is not match");
+    }
+
+    @Test
+    @DisplayName("Method indexEndedBookings() should store eligibility of bookers of completed approved bookings")
+    void shouldIndexEndedBookings() throws Exception {
+        final LocalDateTime before = LocalDateTime.now();
+
+        commentEligibilityIndex.indexEndedBookings();
+
+        assertFalse(commentEligibilityRepository.lockIndexedUntil().isBefore(before), "Stored watermark is before" +
+                " start of indexing");
+
+        assertTrue(commentEligibilityRepository.existsById(new CommentEligibility.Key(4L, 3L)), "Eligibility of" +
+                " user 4 for item 3 is not stored");
+        assertTrue(commentEligibilityRepository.existsById(new CommentEligibility.Key(2L, 2L)), "Eligibility of" +
+                " user 2 for item 2 is not stored");
+        assertFalse(commentEligibilityRepository.existsById(new CommentEligibility.Key(2L, 1L)), "Eligibility of" +
+                " user 2 for item 1 is stored");
+        assertEquals(4, commentEligibilityRepository.count(), "Count of eligibilities and expectedCount is not" +
+                " match");
+    }
+
+    @Test
+    @DisplayName("Method isEligible(long userId, long itemId) should accept booker of booking approved after its end")
+    void shouldAcceptBookingApprovedAfterEnd() throws Exception {
+        final long bookingId = bookingService.createNewBooking(2L, BookingCreateDto.builder()
+                .itemId(7L)
+                .start(LocalDateTime.parse("2023-01-01T00:00:00"))
+                .end(LocalDateTime.parse("2023-01-02T00:00:00"))
+                .build()).getId();
+
+        try {
+            commentEligibilityIndex.indexEndedBookings();
+            bookingService.updateBookingStatus(4L, bookingId, true);
+            commentEligibilityIndex.indexEndedBookings();
+
+            assertTrue(commentEligibilityIndex.isEligible(2L, 7L), "User 2 is not eligible for item 7");
+        } finally {
+            bookingRepository.deleteById(bookingId);
+        }
+    }
+
+    @Test
+    @DisplayName("Method findItemAvailability(long userId, long id, LocalDateTime from, LocalDateTime to) should" +
+            " follow created and rejected bookings")
+    void shouldReturnAvailabilityOfItem() throws Exception {
+        final LocalDateTime from = LocalDateTime.parse("2095-01-01T00:00:00");
+        final LocalDateTime to = LocalDateTime.parse("2095-02-01T00:00:00");
+        final long firstBookingId = bookingService.createNewBooking(1L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2095-01-05T00:00:00"))
+                .end(LocalDateTime.parse("2095-01-10T00:00:00"))
+                .build()).getId();
+        final long secondBookingId = bookingService.createNewBooking(2L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2095-01-10T00:00:00"))
+                .end(LocalDateTime.parse("2095-01-12T00:00:00"))
+                .build()).getId();
+
+        try {
+            final ItemAvailabilityDto availability = itemService.findItemAvailability(3L, 5L, from, to);
+
+            assertEquals(List.of(new BookingPeriodDto(from, LocalDateTime.parse("2095-01-05T00:00:00")),
+                    new BookingPeriodDto(LocalDateTime.parse("2095-01-12T00:00:00"), to)), availability.getFree(),
+                    "Free periods and expectedFreePeriods is not match");
+            assertEquals(List.of(new BookingPeriodDto(LocalDateTime.parse("2095-01-05T00:00:00"),
+                    LocalDateTime.parse("2095-01-12T00:00:00"))), availability.getBusy(), "Busy periods and" +
+                    " expectedBusyPeriods is not match");
+
+            bookingService.updateBookingStatus(4L, firstBookingId, false);
+
+            assertEquals(List.of(new BookingPeriodDto(LocalDateTime.parse("2095-01-10T00:00:00"),
+                    LocalDateTime.parse("2095-01-12T00:00:00"))),
+                    itemService.findItemAvailability(3L, 5L, from, to).getBusy(), "Busy periods and" +
+                    " expectedBusyPeriods is not match");
+        } finally {
+            bookingRepository.deleteById(firstBookingId);
+            bookingRepository.deleteById(secondBookingId);
+        }
+    }
+
+    @Test
+    @DisplayName("Method findItemStats(long userId, String bucket, LocalDate from, LocalDate to) should count" +
+            " created, approved and rejected bookings by days and weeks")
+    void shouldReturnItemStats() throws Exception {
+        final LocalDate from = LocalDate.parse("2096-03-09");
+        final LocalDate to = LocalDate.parse("2096-03-12");
+        final long approvedBookingId = bookingService.createNewBooking(1L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2096-03-09T22:00:00"))
+                .end(LocalDateTime.parse("2096-03-11T02:00:00"))
+                .build()).getId();
+        final long rejectedBookingId = bookingService.createNewBooking(2L, BookingCreateDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.parse("2096-03-12T10:00:00"))
+                .end(LocalDateTime.parse("2096-03-12T12:00:00"))
+                .build()).getId();
+
+        try {
+            bookingService.updateBookingStatus(4L, approvedBookingId, true);
+            bookingService.updateBookingStatus(4L, rejectedBookingId, false);
+
+            final List<ItemStatsDto> expectedDayStats = List.of(
+                    itemStats(LocalDate.parse("2096-03-09"), 1, 1, 0, 2.0, 1.0),
+                    itemStats(LocalDate.parse("2096-03-10"), 0, 0, 0, 24.0, null),
+                    itemStats(LocalDate.parse("2096-03-11"), 0, 0, 0, 2.0, null),
+                    itemStats(LocalDate.parse("2096-03-12"), 1, 0, 1, 0.0, 0.0));
+            final List<ItemStatsDto> expectedWeekStats = List.of(
+                    itemStats(LocalDate.parse("2096-03-05"), 1, 1, 0, 28.0, 1.0),
+                    itemStats(LocalDate.parse("2096-03-12"), 1, 0, 1, 0.0, 0.0));
+
+            assertEquals(expectedDayStats, itemService.findItemStats(4L, "DAY", from, to), "Stats and" +
+                    " expectedStats is not match");
+            assertEquals(expectedWeekStats, itemService.findItemStats(4L, "WEEK", from, to), "Stats and" +
+                    " expectedStats is not match");
+            assertEquals(List.of(), itemService.findItemStats(1L, "DAY", from, to), "Stats and expectedStats is" +
+                    " not match");
+        } finally {
+            bookingRepository.deleteById(approvedBookingId);
+            bookingRepository.deleteById(rejectedBookingId);
+            itemBookingStatsRepository.deleteAll();
+        }
+    }
+
+    private ItemStatsDto itemStats(LocalDate start, int bookings, int approved, int rejected, double bookedHours,
+                                   Double approvalRatio) {
+        return ItemStatsDto.builder()
+                .itemId(5L)
+                .start(start)
+                .bookings(bookings)
+                .approved(approved)
+                .rejected(rejected)
+                .bookedHours(bookedHours)
+                .approvalRatio(approvalRatio)
+                .build();
+    }
+
+    private List<Long> ids(List<ItemResponseDto> items) {
+        List<Long> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.getId()));
+
+        return ids;
+    }
 }
@@ -8,9 +8,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPeriodDto;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.IdNotFoundException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.entity.Item;
@@ -18,6 +20,10 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingStatsService;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceDbImpl;
 import ru.practicum.shareit.request.entity.ItemRequest;
@@ -25,6 +31,7 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,24 +40,36 @@ public class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private BookingRepository bookingRepository;
-    @Mock
     private CommentRepository commentRepository;
     @Mock
     private UserService userService;
     private ItemMapper itemMapper = new ItemMapperImpl();
     @Mock
     private ItemRequestService itemRequestService;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private CommentEligibilityIndex commentEligibilityIndex;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingStatsService itemBookingStatsService;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
     private ItemService itemService;
 
     @BeforeEach
     void initiateItemService() {
         itemService = new ItemServiceDbImpl(itemRepository,
-                bookingRepository,
                 commentRepository,
                 userService,
                 itemMapper,
-                itemRequestService);
+                itemRequestService,
+                itemBookingSummaryService,
+                commentEligibilityIndex,
+                bookingIntervalIndex,
+                itemBookingStatsService,
+                itemSearchIndex);
     }
 
     @Test
@@ -196,4 +215,39 @@ public class ItemServiceTest {
         Assertions.assertEquals(expectedMessage, createNewCommentException.getMessage(), "Exception massage and" +
                 " expectedMassage is not match");
     }
+
+    @Test
+    @DisplayName("Method findItemAvailability(long userId, long id, LocalDateTime from, LocalDateTime to) should" +
+            " merge adjacent reserved periods and return free periods between them")
+    void shouldReturnFreeAndBusyPeriods() throws Exception {
+        final LocalDateTime from = LocalDateTime.parse("2090-01-01T00:00:00");
+        final LocalDateTime to = LocalDateTime.parse("2090-02-01T00:00:00");
+
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(Item.builder().id(1L).build()));
+        Mockito
+                .when(bookingIntervalIndex.findReservedPeriods(1L, from, to))
+                .thenReturn(List.of(
+                        period("2089-12-25T00:00:00", "2090-01-03T00:00:00"),
+                        period("2090-01-10T00:00:00", "2090-01-12T00:00:00"),
+                        period("2090-01-12T00:00:00", "2090-01-15T00:00:00"),
+                        period("2090-01-20T00:00:00", "2090-02-10T00:00:00")));
+
+        final ItemAvailabilityDto availability = itemService.findItemAvailability(2L, 1L, from, to);
+
+        Assertions.assertEquals(List.of(
+                period("2090-01-03T00:00:00", "2090-01-10T00:00:00"),
+                period("2090-01-15T00:00:00", "2090-01-20T00:00:00")), availability.getFree(), "Free periods and" +
+                " expectedFreePeriods is not match");
+        Assertions.assertEquals(List.of(
+                period("2090-01-01T00:00:00", "2090-01-03T00:00:00"),
+                period("2090-01-10T00:00:00", "2090-01-15T00:00:00"),
+                period("2090-01-20T00:00:00", "2090-02-01T00:00:00")), availability.getBusy(), "Busy periods and" +
+                " expectedBusyPeriods is not match");
+    }
+
+    private static BookingPeriodDto period(String start, String end) {
+        return new BookingPeriodDto(LocalDateTime.parse(start), LocalDateTime.parse(end));
+    }
 }
@@ -14,6 +14,7 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -120,4 +121,15 @@ public class ItemRequestServiceIntegrationTest {
 
         assertEquals(expectedRequests, requests, "Requests and expectedRequests is not match");
     }
+
+    @Test
+    @DisplayName("Method findAllItemRequests(long userId, int from, int size) should skip from ItemRequests, not" +
+            " from pages")
+    void shouldReturnItemRequestsFromOffset() throws Exception {
+        final List<Long> requestsIds = itemRequestService.findAllItemRequests(3L, 2, 2).stream()
+                .map(ItemRequestExtendedResponseDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(2L), requestsIds, "RequestsIds and expectedRequestsIds is not match");
+    }
 }
@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.IdNotFoundException;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserCreateUpdateDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.entity.User;
@@ -30,11 +31,13 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     private UserMapper userMapper = new UserMapperImpl();
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
     private UserService userService;
 
     @BeforeEach
     void initiateUserService() {
-        userService = new UserServiceDbImpl(userRepository, userMapper);
+        userService = new UserServiceDbImpl(userRepository, userMapper, itemSearchIndex);
     }
 
     @Test
@@ -46,6 +46,8 @@ VALUES ('2023-11-01T00:00:00', '2023-11-10T00:00:00', 2, 2, 'APPROVED');
 INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)
 VALUES ('2023-12-24T00:00:00', '2023-12-25T00:00:00', 1, 2, 'WAITING');
 
+ALTER SEQUENCE bookings_seq RESTART WITH 101;
+
 INSERT INTO comments (text, author_id, item_id, created)
 VALUES ('Брали для похода по Ладоге. Спасибо, не подвела!', 4, 3, '2023-08-10T00:00:00');
 INSERT INTO comments (text, author_id, item_id, created)